@@ -0,0 +1,202 @@
+package com.example.terdrawerlayout;
+
+/**
+ * 根据手势统计自适应调整的拦截阈值
+ * 记录从抽屉上发起的手势的速度、角度和结果，按误判的类型在边界内调整：
+ * 抽屉被拖动但松手后停回原位（误拦截）时加大滑动阈值，快速的竖直滑动没有拖动抽屉（漏拦截）时减小；
+ * 边缘外的横向滑动加宽边缘，接近 45° 的斜向滑动触发边缘关闭时收窄；
+ * 松手后很快又被拖到别的 detent 时按方向调整吸附阈值。
+ * 统计只保存在内存中，同一设备上的多个布局可以共用一个实例
+ */
+public final class AdaptiveThresholds {
+
+    static final float MIN_SCALE = 0.5F;
+    static final float MAX_SCALE = 2F;
+    static final float MIN_SNAP_SCALE = 0.5F;
+    static final float MAX_SNAP_SCALE = 1.5F;
+    static final float STEP = 0.05F;
+    static final long CORRECTION_WINDOW = 1000L;//ms，松手后在此时间内再次拖动视为修正
+    static final float FLING_VELOCITY = 1000F;//px/s
+    private static final float SMOOTHING = 0.1F;//滑动平均中新样本的权重
+
+    private int baseTouchSlop;
+    private int baseEdgeWidth;
+    private float slopScale = 1F;
+    private float edgeScale = 1F;
+    private float snapScale = 1F;
+
+    private int gestureCount;
+    private float meanVelocity;
+    private float meanAngle;
+    private float accidentalCaptureRate;
+    private float missedDragRate;
+    private float missedEdgeRate;
+    private float snapCorrectionRate;
+
+    private long lastReleaseTime = -1L;
+    private int lastFromDetent;
+    private int lastSnappedDetent;
+    private boolean lastWantOpen;
+
+    void setBase(int touchSlop, int edgeWidth) {
+        baseTouchSlop = touchSlop;
+        baseEdgeWidth = edgeWidth;
+    }
+
+    /**
+     * 当前使用的竖直拦截阈值，横向的边缘关闭阈值为其一半
+     */
+    public int getTouchSlop() {
+        return Math.round(baseTouchSlop * slopScale);
+    }
+
+    public int getEdgeWidth() {
+        return Math.round(baseEdgeWidth * edgeScale);
+    }
+
+    /**
+     * 吸附阈值（或没有阈值时的半个区间）的缩放
+     */
+    public float getSnapThresholdScale() {
+        return snapScale;
+    }
+
+    public float getSlopScale() {
+        return slopScale;
+    }
+
+    public float getEdgeScale() {
+        return edgeScale;
+    }
+
+    public int getGestureCount() {
+        return gestureCount;
+    }
+
+    /**
+     * 竖直速度的滑动平均，px/s
+     */
+    public float getMeanVelocity() {
+        return meanVelocity;
+    }
+
+    /**
+     * 手势方向与竖直方向夹角的滑动平均，单位度
+     */
+    public float getMeanAngle() {
+        return meanAngle;
+    }
+
+    public float getAccidentalCaptureRate() {
+        return accidentalCaptureRate;
+    }
+
+    public float getMissedDragRate() {
+        return missedDragRate;
+    }
+
+    public float getMissedEdgeRate() {
+        return missedEdgeRate;
+    }
+
+    public float getSnapCorrectionRate() {
+        return snapCorrectionRate;
+    }
+
+    /**
+     * 清除统计，阈值回到默认值
+     */
+    public void reset() {
+        slopScale = 1F;
+        edgeScale = 1F;
+        snapScale = 1F;
+        gestureCount = 0;
+        meanVelocity = 0F;
+        meanAngle = 0F;
+        accidentalCaptureRate = 0F;
+        missedDragRate = 0F;
+        missedEdgeRate = 0F;
+        snapCorrectionRate = 0F;
+        lastReleaseTime = -1L;
+    }
+
+    /**
+     * 一次手势结束
+     *
+     * @param onDrawerTop   是否从抽屉上按下
+     * @param captured      抽屉是否被拖动
+     * @param detentChanged 松手后是否换了 detent
+     * @param onEdge        是否从边缘范围内按下
+     * @param nearEdge      是否从边缘范围外、两倍边缘宽度内按下
+     * @param edgeClosed    是否触发了边缘关闭
+     */
+    void onGesture(float dx, float dy, long durationMillis, boolean onDrawerTop, boolean captured, boolean detentChanged,
+                   boolean onEdge, boolean nearEdge, boolean edgeClosed) {
+        float adx = Math.abs(dx);
+        float ady = Math.abs(dy);
+        float velocity = durationMillis > 0 ? ady * 1000F / durationMillis : 0F;
+        float angle = (float) Math.toDegrees(Math.atan2(adx, ady));
+        gestureCount++;
+        meanVelocity = smooth(meanVelocity, velocity);
+        meanAngle = smooth(meanAngle, angle);
+
+        if (onDrawerTop) {
+            int slop = getTouchSlop();
+            boolean accidental = captured && !detentChanged && ady < slop * 3;
+            boolean missed = !captured && angle < 30F && velocity > FLING_VELOCITY && ady > slop / 2F;
+            accidentalCaptureRate = smooth(accidentalCaptureRate, accidental ? 1F : 0F);
+            missedDragRate = smooth(missedDragRate, missed ? 1F : 0F);
+            if (accidental) {
+                slopScale = clamp(slopScale + STEP, MIN_SCALE, MAX_SCALE);
+            } else if (missed) {
+                slopScale = clamp(slopScale - STEP, MIN_SCALE, MAX_SCALE);
+            }
+        }
+
+        if (onEdge || nearEdge) {
+            boolean horizontal = adx > getTouchSlop() / 2F && ady < adx;
+            boolean missedEdge = nearEdge && horizontal;
+            boolean accidentalEdge = edgeClosed && ady > adx * 0.6F;
+            missedEdgeRate = smooth(missedEdgeRate, missedEdge ? 1F : 0F);
+            if (missedEdge) {
+                edgeScale = clamp(edgeScale + STEP, MIN_SCALE, MAX_SCALE);
+            } else if (accidentalEdge) {
+                edgeScale = clamp(edgeScale - STEP, MIN_SCALE, MAX_SCALE);
+            }
+        }
+    }
+
+    /**
+     * 拖动松手并吸附到 snappedDetent，下标 0 为最展开
+     * 与上一次松手间隔很短且是从上次的停靠位置拖起时，比较两次结果：
+     * 上次停在原位、这次继续往上次拖动的方向走，说明阈值太大；上次换了位置、这次又拖回去，说明阈值太小
+     */
+    void onRelease(long timeMillis, int fromDetent, int snappedDetent, boolean wantOpen) {
+        boolean corrected = false;
+        if (lastReleaseTime >= 0 && timeMillis - lastReleaseTime < CORRECTION_WINDOW && fromDetent == lastSnappedDetent) {
+            boolean undershoot = lastSnappedDetent == lastFromDetent
+                    && (lastWantOpen ? snappedDetent < lastSnappedDetent : snappedDetent > lastSnappedDetent);
+            boolean overshoot = lastSnappedDetent != lastFromDetent
+                    && Math.abs(snappedDetent - lastFromDetent) < Math.abs(lastSnappedDetent - lastFromDetent);
+            if (undershoot) {
+                snapScale = clamp(snapScale - STEP, MIN_SNAP_SCALE, MAX_SNAP_SCALE);
+            } else if (overshoot) {
+                snapScale = clamp(snapScale + STEP, MIN_SNAP_SCALE, MAX_SNAP_SCALE);
+            }
+            corrected = undershoot || overshoot;
+        }
+        snapCorrectionRate = smooth(snapCorrectionRate, corrected ? 1F : 0F);
+        lastReleaseTime = timeMillis;
+        lastFromDetent = fromDetent;
+        lastSnappedDetent = snappedDetent;
+        lastWantOpen = wantOpen;
+    }
+
+    private static float smooth(float mean, float sample) {
+        return mean + (sample - mean) * SMOOTHING;
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.min(Math.max(value, min), max);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.terdrawerlayout;
+
+/**
+ * 一组不可变的停靠高度（抽屉露出的高度，px），可以在后台线程计算后通过
+ * {@link TertiaryDrawerLayout#publishAnchors(AnchorHeights)} 一次性发布
+ */
+public final class AnchorHeights {
+
+    private final int fillHeight;
+    private final int hoverHeight;
+    private final int closeHeight;
+    private final boolean hasThresholds;
+    private final int topExpandHeight;
+    private final int bottomCollapseHeight;
+    private final int[] detents;
+
+    /**
+     * 不带吸附阈值，松手时吸附到较近的一档
+     */
+    public AnchorHeights(int fillHeight, int hoverHeight, int closeHeight) {
+        this(fillHeight, hoverHeight, closeHeight, false, 0, 0, null);
+    }
+
+    /**
+     * 吸附阈值的含义同 {@link TertiaryDrawerLayout.IContentHeightProxy}
+     */
+    public AnchorHeights(int fillHeight, int hoverHeight, int closeHeight, int topExpandHeight, int bottomCollapseHeight) {
+        this(fillHeight, hoverHeight, closeHeight, true, topExpandHeight, bottomCollapseHeight, null);
+    }
+
+    /**
+     * @param detents 同时替换 {@link TertiaryDrawerLayout#setDetents(int...)} 设置的额外高度
+     */
+    public AnchorHeights(int fillHeight, int hoverHeight, int closeHeight, int topExpandHeight, int bottomCollapseHeight, int[] detents) {
+        this(fillHeight, hoverHeight, closeHeight, true, topExpandHeight, bottomCollapseHeight, detents == null ? new int[0] : detents.clone());
+    }
+
+    private AnchorHeights(int fillHeight, int hoverHeight, int closeHeight, boolean hasThresholds,
+                          int topExpandHeight, int bottomCollapseHeight, int[] detents) {
+        this.fillHeight = fillHeight;
+        this.hoverHeight = hoverHeight;
+        this.closeHeight = closeHeight;
+        this.hasThresholds = hasThresholds;
+        this.topExpandHeight = topExpandHeight;
+        this.bottomCollapseHeight = bottomCollapseHeight;
+        this.detents = detents;
+    }
+
+    public int getFillHeight() {
+        return fillHeight;
+    }
+
+    public int getHoverHeight() {
+        return hoverHeight;
+    }
+
+    public int getCloseHeight() {
+        return closeHeight;
+    }
+
+    public boolean hasThresholds() {
+        return hasThresholds;
+    }
+
+    public int getTopExpandHeight() {
+        return topExpandHeight;
+    }
+
+    public int getBottomCollapseHeight() {
+        return bottomCollapseHeight;
+    }
+
+    /**
+     * 不替换额外高度时为 null
+     */
+    int[] getDetents() {
+        return detents;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.terdrawerlayout;
+
+import android.view.MotionEvent;
+
+/**
+ * 用触点最近的采样（包括批量事件里的历史采样）拟合速度，预测下一次 vsync 时手指的位置
+ * 只使用 {@link #HORIZON_MILLIS} 内的采样，采样不足时不做预测
+ */
+class DragPredictor {
+
+    private static final int CAPACITY = 8;
+    private static final long HORIZON_MILLIS = 40;
+    private static final int MIN_SAMPLES = 3;
+
+    private final long[] times = new long[CAPACITY];
+    private final float[] positions = new float[CAPACITY];
+    private int next;
+    private int count;
+
+    void reset() {
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * 加入事件中 pointerIndex 触点的历史采样和当前采样
+     */
+    void add(MotionEvent ev, int pointerIndex) {
+        int historySize = ev.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            add(ev.getHistoricalEventTime(h), ev.getHistoricalY(pointerIndex, h));
+        }
+        add(ev.getEventTime(), ev.getY(pointerIndex));
+    }
+
+    void add(long timeMillis, float position) {
+        if (count > 0 && timeMillis <= times[newest()]) {
+            //时间没有前进的采样无法用于拟合
+            return;
+        }
+        times[next] = timeMillis;
+        positions[next] = position;
+        next = (next + 1) % CAPACITY;
+        if (count < CAPACITY) {
+            count++;
+        }
+    }
+
+    /**
+     * 最小二乘拟合最近采样的速度
+     *
+     * @param leadMillis 预测的提前量
+     * @return leadMillis 之后相对最新采样的位移，采样不足时为 0
+     */
+    float predictOffset(float leadMillis) {
+        if (count < MIN_SAMPLES) {
+            return 0F;
+        }
+        int newest = newest();
+        long newestTime = times[newest];
+        float newestPosition = positions[newest];
+        int n = 0;
+        double sumT = 0;
+        double sumP = 0;
+        double sumTT = 0;
+        double sumTP = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (newest - i + CAPACITY) % CAPACITY;
+            long t = times[index] - newestTime;
+            if (-t > HORIZON_MILLIS) {
+                break;
+            }
+            float p = positions[index] - newestPosition;
+            sumT += t;
+            sumP += p;
+            sumTT += (double) t * t;
+            sumTP += t * p;
+            n++;
+        }
+        if (n < MIN_SAMPLES) {
+            return 0F;
+        }
+        double denominator = n * sumTT - sumT * sumT;
+        if (denominator == 0) {
+            return 0F;
+        }
+        double velocity = (n * sumTP - sumT * sumP) / denominator;
+        return (float) (velocity * leadMillis);
+    }
+
+    private int newest() {
+        return (next - 1 + CAPACITY) % CAPACITY;
+    }
+}
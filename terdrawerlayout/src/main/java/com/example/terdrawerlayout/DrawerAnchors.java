@@ -0,0 +1,280 @@
+package com.example.terdrawerlayout;
+
+import java.util.Arrays;
+
+/**
+ * 抽屉停靠位置（detent）的快照
+ * FILL/HOVER/CLOSE 三个预设加上 {@link TertiaryDrawerLayout#setDetents(int...)} 设置的额外高度，
+ * 去重后按 top 升序（越靠前越展开）存放在基本类型数组里，吸附时二分查找所在区间。
+ * 只在测量高度变化或 {@link TertiaryDrawerLayout#invalidateAnchors()} 之后重新向 IContentHeightProxy 取值
+ */
+class DrawerAnchors {
+
+    private static final int[] EMPTY = new int[0];
+    private static final ViewState[] PRESETS = ViewState.values();
+    private static final int PRESET_COUNT = PRESETS.length;
+
+    private boolean dirty = true;
+    private int measuredHeight;
+
+    private int fillHeight;
+    private int hoverHeight;
+    private int closeHeight;
+    private boolean hasThresholds;//是否由 proxy 提供吸附阈值
+    private int topExpandHeight;
+    private int bottomCollapseHeight;
+
+    private int[] extraHeights = EMPTY;
+    private int[] detentHeights = new int[PRESET_COUNT];
+    private int[] detentTops = new int[PRESET_COUNT];
+    private int detentCount;
+    private final int[] presetDetents = new int[PRESET_COUNT];//ViewState.ordinal() -> detent 下标
+    private int generation;//解析结果变化时递增
+    //上一次递增 generation 时的结果，用于逐项比较
+    private int[] lastTops = EMPTY;
+    private int lastCount = -1;
+    private final int[] lastPresetDetents = new int[PRESET_COUNT];
+    private int lastTopExpandHeight;
+    private int lastBottomCollapseHeight;
+
+    void invalidate() {
+        dirty = true;
+    }
+
+    boolean isValidFor(int measuredHeight) {
+        return !dirty && this.measuredHeight == measuredHeight;
+    }
+
+    void setExtraHeights(int[] heights) {
+        extraHeights = heights == null || heights.length == 0 ? EMPTY : heights.clone();
+        dirty = true;
+    }
+
+    void resolve(TertiaryDrawerLayout layout, TertiaryDrawerLayout.IContentHeightProxy proxy) {
+        boolean hasProxy = proxy != null;
+        resolve(layout.getMeasuredHeight(), layout.getTopStateFill(), layout.getTopStateHover(), layout.getTopStateClose(),
+                hasProxy, hasProxy ? proxy.getTopExpandHeight() : 0, hasProxy ? proxy.getBottomCollapseHeight() : 0);
+    }
+
+    void resolve(int measuredHeight, int fillHeight, int hoverHeight, int closeHeight,
+                 boolean hasThresholds, int topExpandHeight, int bottomCollapseHeight) {
+        this.measuredHeight = measuredHeight;
+        this.fillHeight = fillHeight;
+        this.hoverHeight = hoverHeight;
+        this.closeHeight = closeHeight;
+        this.hasThresholds = hasThresholds;
+        this.topExpandHeight = topExpandHeight;
+        this.bottomCollapseHeight = bottomCollapseHeight;
+
+        int count = PRESET_COUNT + extraHeights.length;
+        if (detentHeights.length < count) {
+            detentHeights = new int[count];
+            detentTops = new int[count];
+        }
+        detentHeights[0] = fillHeight;
+        detentHeights[1] = hoverHeight;
+        detentHeights[2] = closeHeight;
+        System.arraycopy(extraHeights, 0, detentHeights, PRESET_COUNT, extraHeights.length);
+        //高度降序即 top 升序，同时去掉重复高度
+        Arrays.sort(detentHeights, 0, count);
+        int unique = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            if (unique == 0 || detentHeights[unique - 1] != detentHeights[i]) {
+                detentHeights[unique++] = detentHeights[i];
+            }
+        }
+        detentCount = unique;
+        for (int i = 0; i < detentCount; i++) {
+            detentTops[i] = measuredHeight - detentHeights[i];
+        }
+        presetDetents[ViewState.FILL.ordinal()] = indexOfHeight(fillHeight);
+        presetDetents[ViewState.HOVER.ordinal()] = indexOfHeight(hoverHeight);
+        presetDetents[ViewState.CLOSE.ordinal()] = indexOfHeight(closeHeight);
+        dirty = false;
+
+        if (!isSameAsLast()) {
+            if (lastTops.length < detentCount) {
+                lastTops = new int[detentTops.length];
+            }
+            System.arraycopy(detentTops, 0, lastTops, 0, detentCount);
+            System.arraycopy(presetDetents, 0, lastPresetDetents, 0, PRESET_COUNT);
+            lastCount = detentCount;
+            lastTopExpandHeight = topExpandHeight;
+            lastBottomCollapseHeight = bottomCollapseHeight;
+            generation++;
+        }
+    }
+
+    private boolean isSameAsLast() {
+        if (detentCount != lastCount || topExpandHeight != lastTopExpandHeight || bottomCollapseHeight != lastBottomCollapseHeight
+                || !Arrays.equals(presetDetents, lastPresetDetents)) {
+            return false;
+        }
+        for (int i = 0; i < detentCount; i++) {
+            if (detentTops[i] != lastTops[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 布局据此判断停靠位置是否变化，不变时不需要重新放置抽屉
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    int getHeight(ViewState state) {
+        switch (state) {
+            case FILL:
+                return fillHeight;
+            case HOVER:
+                return hoverHeight;
+            default:
+                return closeHeight;
+        }
+    }
+
+    int getTop(ViewState state) {
+        return measuredHeight - getHeight(state);
+    }
+
+    boolean hasThresholds() {
+        return hasThresholds;
+    }
+
+    int getTopExpandHeight() {
+        return topExpandHeight;
+    }
+
+    int getBottomCollapseHeight() {
+        return bottomCollapseHeight;
+    }
+
+    int getDetentCount() {
+        return detentCount;
+    }
+
+    int getDetentTop(int detent) {
+        return detentTops[detent];
+    }
+
+    int getDetentHeight(int detent) {
+        return detentHeights[detent];
+    }
+
+    int getMaxTop() {
+        return detentTops[detentCount - 1];
+    }
+
+    /**
+     * top 在全部 detent 范围内的位置，0 为最收起，1 为最展开
+     */
+    float progressOf(int top) {
+        int range = getMaxTop() - detentTops[0];
+        if (range <= 0) {
+            return 1F;
+        }
+        return Math.min(1F, Math.max(0F, (getMaxTop() - top) / (float) range));
+    }
+
+    int indexOf(ViewState state) {
+        return presetDetents[state.ordinal()];
+    }
+
+    /**
+     * detent 对应的预设状态，不是预设时返回 null
+     */
+    ViewState presetAt(int detent) {
+        for (ViewState state : PRESETS) {
+            if (presetDetents[state.ordinal()] == detent) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 与 detent 位置最接近的预设状态，用于额外 detent 上报 {@link ViewState}
+     */
+    ViewState nearestPreset(int detent) {
+        int top = detentTops[detent];
+        ViewState nearest = ViewState.CLOSE;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (ViewState state : PRESETS) {
+            int distance = Math.abs(detentTops[presetDetents[state.ordinal()]] - top);
+            if (distance < nearestDistance) {
+                nearest = state;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * 高度最接近的 detent
+     */
+    int indexOfHeight(int height) {
+        int lo = 0, hi = detentCount - 1;
+        //detentHeights 降序
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (detentHeights[mid] > height) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (lo > 0 && detentHeights[lo - 1] - height < height - detentHeights[lo]) {
+            return lo - 1;
+        }
+        return lo;
+    }
+
+    /**
+     * 二分查找 projectedTop 所在的相邻 detent 区间，再按阈值决定停靠哪一端
+     * 有 proxy 时，HOVER 以上的区间使用 topExpandHeight，以下的使用 bottomCollapseHeight，
+     * 否则取区间中点
+     *
+     * @param projectedTop 松手位置加上速度投影后的 top
+     * @param isWantOpen   是否向上（展开方向）拖动
+     */
+    int snap(float projectedTop, boolean isWantOpen) {
+        return snap(projectedTop, isWantOpen, 1F);
+    }
+
+    /**
+     * @param thresholdScale 阈值（或半个区间）的缩放，小于 1 时更容易停到拖动方向的一端
+     */
+    int snap(float projectedTop, boolean isWantOpen, float thresholdScale) {
+        if (detentCount == 1 || projectedTop <= detentTops[0]) {
+            return 0;
+        }
+        if (projectedTop >= detentTops[detentCount - 1]) {
+            return detentCount - 1;
+        }
+        int lo = 0, hi = detentCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (detentTops[mid] <= projectedTop) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int upper = lo, lower = lo + 1;
+        int upperTop = detentTops[upper], lowerTop = detentTops[lower];
+        float threshold;
+        if (!hasThresholds) {
+            threshold = (lowerTop - upperTop) / 2F * thresholdScale;
+        } else {
+            threshold = (lowerTop <= getTop(ViewState.HOVER) ? topExpandHeight : bottomCollapseHeight) * thresholdScale;
+        }
+        if (isWantOpen) {
+            return projectedTop < lowerTop - threshold ? upper : lower;
+        } else {
+            return projectedTop < upperTop + threshold ? upper : lower;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.terdrawerlayout;
+
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * 同一个布局中除主抽屉外的其他抽屉
+ * 所有抽屉共用布局的 ViewDragHelper：按下时它按 z 序找到触点下最上层的子 View，一次判断就决定由哪个抽屉捕获。
+ * ViewDragHelper 同一时间只移动一个抽屉，换成另一个抽屉时正在回弹的抽屉直接放到目标位置，
+ * 它被其他抽屉占用时主抽屉改用逐帧回弹；布局时只重新放置移动中的抽屉
+ */
+class DrawerArbiter {
+
+    static class SecondaryDrawer {
+        final View view;
+        final DrawerAnchors anchors = new DrawerAnchors();
+        int[] visibleHeights;
+        int detent;
+        int top;
+        boolean laidOut;
+        int laidOutGeneration;
+
+        SecondaryDrawer(View view, int[] visibleHeights) {
+            this.view = view;
+            setHeights(visibleHeights);
+        }
+
+        /**
+         * 三个预设都取最小高度，去重后只剩给定的这组高度；默认停在最小高度
+         */
+        void setHeights(int[] visibleHeights) {
+            this.visibleHeights = visibleHeights.clone();
+            anchors.setExtraHeights(visibleHeights);
+            anchors.invalidate();
+            detent = Integer.MAX_VALUE;
+        }
+
+        void resolve(int measuredHeight) {
+            if (anchors.isValidFor(measuredHeight)) {
+                return;
+            }
+            int min = Integer.MAX_VALUE;
+            for (int height : visibleHeights) {
+                min = Math.min(min, height);
+            }
+            if (min == Integer.MAX_VALUE) {
+                min = 0;
+            }
+            anchors.resolve(measuredHeight, min, min, min, false, 0, 0);
+            detent = Math.min(detent, anchors.getDetentCount() - 1);
+        }
+    }
+
+    private final ArrayList<SecondaryDrawer> drawers = new ArrayList<>();
+
+    SecondaryDrawer add(View view, int[] visibleHeights) {
+        SecondaryDrawer drawer = find(view);
+        if (drawer != null) {
+            drawer.setHeights(visibleHeights);
+            return drawer;
+        }
+        drawer = new SecondaryDrawer(view, visibleHeights);
+        drawers.add(drawer);
+        return drawer;
+    }
+
+    boolean remove(View view) {
+        for (int i = 0; i < drawers.size(); i++) {
+            if (drawers.get(i).view == view) {
+                drawers.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    SecondaryDrawer find(View view) {
+        for (int i = 0; i < drawers.size(); i++) {
+            SecondaryDrawer drawer = drawers.get(i);
+            if (drawer.view == view) {
+                return drawer;
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return drawers.size();
+    }
+
+    SecondaryDrawer get(int index) {
+        return drawers.get(index);
+    }
+
+    void resolve(int measuredHeight) {
+        for (int i = 0; i < drawers.size(); i++) {
+            drawers.get(i).resolve(measuredHeight);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.terdrawerlayout;
+
+import android.os.SystemClock;
+
+/**
+ * 触摸决策的诊断记录
+ * 由编译期常量 {@link #ENABLED} 控制，关闭时调用处的记录代码会被编译器整段去掉；
+ * 开启后把捕获判断、拦截结果、状态变化写入固定大小的基本类型环形缓冲区，需要时通过 {@link #dump()} 输出
+ */
+public final class DrawerDiagnostics {
+
+    /**
+     * 编译期开关，调用方先判断再记录：{@code if (DrawerDiagnostics.ENABLED) diagnostics.record(...)}
+     * 构建时通过 {@code -PdrawerDiagnostics=true} 打开
+     */
+    public static final boolean ENABLED = BuildConfig.DRAWER_DIAGNOSTICS;
+
+    public static final int TYPE_CAPTURE = 1;
+    public static final int TYPE_INTERCEPT = 2;
+    public static final int TYPE_STATE = 3;
+    public static final int TYPE_MOTION = 4;
+
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private final long[] times;
+    private final int[] types;
+    private final int[] args0;
+    private final int[] args1;
+    private final int[] args2;
+    private int next;
+    private int count;
+
+    public DrawerDiagnostics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DrawerDiagnostics(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        times = new long[capacity];
+        types = new int[capacity];
+        args0 = new int[capacity];
+        args1 = new int[capacity];
+        args2 = new int[capacity];
+    }
+
+    /**
+     * 写入一条记录，缓冲区满后覆盖最早的记录
+     */
+    public synchronized void record(int type, int arg0, int arg1, int arg2) {
+        times[next] = SystemClock.uptimeMillis();
+        types[next] = type;
+        args0[next] = arg0;
+        args1[next] = arg1;
+        args2[next] = arg2;
+        next = (next + 1) % times.length;
+        if (count < times.length) {
+            count++;
+        }
+    }
+
+    /**
+     * 捕获判断
+     */
+    void recordCapture(boolean canCapture, boolean canDrag, boolean isHandleDrawer) {
+        record(TYPE_CAPTURE, toInt(canCapture), toInt(canDrag), toInt(isHandleDrawer));
+    }
+
+    /**
+     * 拦截结果
+     */
+    void recordIntercept(int action, boolean interceptTap, boolean interceptForDrag) {
+        record(TYPE_INTERCEPT, action, toInt(interceptTap), toInt(interceptForDrag));
+    }
+
+    /**
+     * 目标 detent 变化
+     */
+    void recordState(ViewState state, int detent, int targetTop) {
+        record(TYPE_STATE, state.ordinal(), detent, targetTop);
+    }
+
+    /**
+     * 拖动/回弹/静止切换，取值同 ViewDragHelper.STATE_*
+     */
+    void recordMotion(int fromState, int toState, int top) {
+        record(TYPE_MOTION, fromState, toState, top);
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized void clear() {
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * 按时间顺序输出全部记录，只在需要时调用
+     */
+    public synchronized String dump() {
+        StringBuilder builder = new StringBuilder(count * 48);
+        int start = (next - count + times.length) % times.length;
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % times.length;
+            builder.append(times[index]).append(' ');
+            switch (types[index]) {
+                case TYPE_CAPTURE:
+                    builder.append("capture=").append(args0[index] != 0)
+                            .append(" canDrag=").append(args1[index] != 0)
+                            .append(" handleDrawer=").append(args2[index] != 0);
+                    break;
+                case TYPE_INTERCEPT:
+                    builder.append("intercept action=").append(args0[index])
+                            .append(" tap=").append(args1[index] != 0)
+                            .append(" drag=").append(args2[index] != 0);
+                    break;
+                case TYPE_STATE:
+                    builder.append("state=").append(ViewState.values()[args0[index]])
+                            .append(" detent=").append(args1[index])
+                            .append(" top=").append(args2[index]);
+                    break;
+                case TYPE_MOTION:
+                    builder.append("motion ").append(args0[index]).append("->").append(args1[index])
+                            .append(" top=").append(args2[index]);
+                    break;
+                default:
+                    builder.append("type=").append(types[index])
+                            .append(' ').append(args0[index])
+                            .append(' ').append(args1[index])
+                            .append(' ').append(args2[index]);
+                    break;
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static int toInt(boolean value) {
+        return value ? 1 : 0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.terdrawerlayout;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.view.View;
+
+/**
+ * 随抽屉位置变化的遮罩和背景视差
+ * 由布局在绘制抽屉时直接画出遮罩、平移背景，和抽屉的位置在同一帧生效，不需要逐帧回调再去修改其他 View
+ */
+class DrawerEffects {
+
+    private final Paint scrimPaint = new Paint();
+    private int scrimColor;
+    private float scrimFrom;
+    private float scrimTo = 1F;
+    private View parallaxBackground;
+    private float parallaxFactor;
+
+    /**
+     * @param fromProgress 开始出现遮罩的抽屉进度
+     * @param toProgress   遮罩达到 color 本身透明度的进度
+     */
+    void setScrim(int color, float fromProgress, float toProgress) {
+        scrimColor = color;
+        scrimFrom = fromProgress;
+        scrimTo = toProgress;
+    }
+
+    void setParallax(View background, float factor) {
+        parallaxBackground = background;
+        parallaxFactor = factor;
+    }
+
+    View getParallaxBackground() {
+        return parallaxBackground;
+    }
+
+    boolean hasScrim() {
+        return (scrimColor >>> 24) != 0;
+    }
+
+    boolean hasParallax() {
+        return parallaxBackground != null && parallaxFactor != 0F;
+    }
+
+    boolean isActive() {
+        return hasScrim() || hasParallax();
+    }
+
+    /**
+     * progress 为 0 最收起，1 最展开，透明度在 [from, to] 之间线性变化
+     */
+    int scrimColorAt(float progress) {
+        float fraction;
+        if (scrimTo == scrimFrom) {
+            fraction = progress >= scrimTo ? 1F : 0F;
+        } else {
+            fraction = Math.min(1F, Math.max(0F, (progress - scrimFrom) / (scrimTo - scrimFrom)));
+        }
+        int alpha = Math.round((scrimColor >>> 24) * fraction);
+        return (alpha << 24) | (scrimColor & 0xFFFFFF);
+    }
+
+    /**
+     * 背景跟随抽屉离开最收起位置的距离按比例移动
+     */
+    float parallaxOffset(float drawerTop, int maxTop) {
+        return (drawerTop - maxTop) * parallaxFactor;
+    }
+
+    /**
+     * 在抽屉之前调用，遮住抽屉上方的区域
+     */
+    void drawScrim(Canvas canvas, int width, float drawerTop, float progress) {
+        int color = scrimColorAt(progress);
+        if ((color >>> 24) == 0 || drawerTop <= 0F) {
+            return;
+        }
+        scrimPaint.setColor(color);
+        canvas.drawRect(0F, 0F, width, drawerTop, scrimPaint);
+    }
+}
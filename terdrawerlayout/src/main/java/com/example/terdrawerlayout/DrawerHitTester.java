@@ -0,0 +1,91 @@
+package com.example.terdrawerlayout;
+
+import android.view.View;
+
+/**
+ * 抽屉的命中测试，参数都是基本类型的屏幕坐标，触摸路径上不产生对象
+ * 布局自身的屏幕位置只在布局/滚动变化后重新读取，抽屉的位置由 left/top/translation 推算
+ */
+class DrawerHitTester {
+
+    private final int[] location = new int[2];
+    private boolean originValid;
+    private int originX;
+    private int originY;
+
+    private float drawerLeft;
+    private float drawerTop;
+    private float drawerRight;
+    private float drawerBottom;
+
+    /**
+     * 布局、滚动或窗口位置变化时调用，下一次 {@link #update} 重新读取屏幕位置
+     */
+    void invalidateOrigin() {
+        originValid = false;
+    }
+
+    void update(View host, View drawer) {
+        if (!originValid) {
+            host.getLocationOnScreen(location);
+            setOrigin(location[0], location[1]);
+        }
+        float left = originX + drawer.getLeft() + drawer.getTranslationX() - host.getScrollX();
+        float top = originY + drawer.getTop() + drawer.getTranslationY() - host.getScrollY();
+        setDrawerBounds(left, top, left + drawer.getWidth(), top + drawer.getHeight());
+    }
+
+    void setOrigin(int x, int y) {
+        originX = x;
+        originY = y;
+        originValid = true;
+    }
+
+    void setDrawerBounds(float left, float top, float right, float bottom) {
+        drawerLeft = left;
+        drawerTop = top;
+        drawerRight = right;
+        drawerBottom = bottom;
+    }
+
+    int getOriginX() {
+        return originX;
+    }
+
+    int getOriginY() {
+        return originY;
+    }
+
+    boolean isUnderDrawer(float rawX, float rawY) {
+        return inHorizontal(rawX) && rawY >= drawerTop && rawY <= drawerBottom;
+    }
+
+    /**
+     * 是否点在抽屉当前可见的部分
+     *
+     * @param visibleHeight 当前状态下抽屉露出的高度
+     */
+    boolean isUnderDrawerTop(float rawX, float rawY, int visibleHeight) {
+        return inHorizontal(rawX) && rawY >= drawerTop && rawY <= drawerTop + visibleHeight;
+    }
+
+    /**
+     * 是否点在全展开位置与抽屉顶部之间的空白处
+     *
+     * @param fillTop 全展开时抽屉的 top
+     */
+    boolean isUnderDrawerBlank(float rawX, float rawY, int fillTop) {
+        return inHorizontal(rawX) && rawY >= fillTop && rawY <= drawerTop;
+    }
+
+    /**
+     * 是否在抽屉左右边缘 edgeWidth 范围内
+     */
+    boolean isOnEdge(float rawX, int edgeWidth) {
+        return (rawX <= edgeWidth && rawX >= drawerLeft) || (rawX >= drawerRight - edgeWidth && rawX <= drawerRight);
+    }
+
+    private boolean inHorizontal(float rawX) {
+        return rawX >= drawerLeft && rawX <= drawerRight;
+    }
+}
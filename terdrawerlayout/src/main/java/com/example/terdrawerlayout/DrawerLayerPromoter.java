@@ -0,0 +1,77 @@
+package com.example.terdrawerlayout;
+
+import android.os.SystemClock;
+import android.view.View;
+
+/**
+ * 拖动/回弹期间把抽屉提升为硬件层，移动时只需合成已有的层，不再重绘整个子树
+ * 内容在提升期间持续刷新时，每次刷新都要重绘整个层，超过 {@link #INVALIDATION_LIMIT} 次就退回普通绘制
+ */
+class DrawerLayerPromoter {
+
+    static final int INVALIDATION_LIMIT = 3;
+
+    private TertiaryDrawerLayout.OnLayerPromotionListener listener;
+    private View view;
+    private boolean promoted;
+    private boolean fellBack;
+    private int previousLayerType;
+    private long promotedAt;
+    private int invalidations;
+
+    void setListener(TertiaryDrawerLayout.OnLayerPromotionListener listener) {
+        this.listener = listener;
+    }
+
+    boolean isPromoted() {
+        return promoted;
+    }
+
+    void promote(View view) {
+        if (promoted || fellBack || !view.isHardwareAccelerated() || view.getLayerType() == View.LAYER_TYPE_HARDWARE) {
+            return;
+        }
+        this.view = view;
+        previousLayerType = view.getLayerType();
+        view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        promoted = true;
+        invalidations = 0;
+        promotedAt = SystemClock.elapsedRealtimeNanos();
+        if (listener != null) {
+            listener.onLayerPromoted();
+        }
+    }
+
+    /**
+     * 回到静止状态时调用，同时清除退回标记，下一次移动可以重新提升
+     */
+    void release() {
+        if (promoted) {
+            dropLayer();
+        }
+        fellBack = false;
+    }
+
+    /**
+     * 抽屉内容刷新，target 为抽屉本身时是位置属性变化，不需要重绘层
+     */
+    void onDescendantInvalidated(View target) {
+        if (!promoted || target == view) {
+            return;
+        }
+        invalidations++;
+        if (invalidations > INVALIDATION_LIMIT) {
+            fellBack = true;
+            dropLayer();
+        }
+    }
+
+    private void dropLayer() {
+        promoted = false;
+        view.setLayerType(previousLayerType, null);
+        if (listener != null) {
+            listener.onLayerReleased(SystemClock.elapsedRealtimeNanos() - promotedAt, invalidations, fellBack);
+        }
+        view = null;
+    }
+}
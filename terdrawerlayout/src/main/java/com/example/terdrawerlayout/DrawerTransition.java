@@ -0,0 +1,183 @@
+package com.example.terdrawerlayout;
+
+import android.view.animation.Interpolator;
+
+import java.util.ArrayList;
+
+/**
+ * {@link TertiaryDrawerLayout#animateDrawer(int)} 返回的一次抽屉移动
+ * 可以取消、查询状态、监听开始回弹和停稳，也可以用 {@link #then(int)} 接着排下一次移动。
+ * 只能在主线程使用
+ */
+public final class DrawerTransition {
+
+    public interface Listener {
+
+        /**
+         * 抽屉开始向目标位置移动，已经在目标位置时紧接着回调 {@link #onSettled}
+         */
+        default void onSettlingStarted(DrawerTransition transition) {
+        }
+
+        default void onSettled(DrawerTransition transition) {
+        }
+
+        /**
+         * 被取消、被新的移动或拖动打断，或者前一次移动没有完成
+         */
+        default void onCancelled(DrawerTransition transition) {
+        }
+    }
+
+    static final int PENDING = 0;
+    static final int RUNNING = 1;
+    static final int SETTLED = 2;
+    static final int CANCELLED = 3;
+
+    private final TertiaryDrawerLayout layout;
+    private final int detent;
+    private final int duration;
+    private final Interpolator interpolator;
+    private final ArrayList<Listener> listeners = new ArrayList<>();
+    private int status = PENDING;
+    private boolean settlingStarted;
+    private DrawerTransition next;
+
+    DrawerTransition(TertiaryDrawerLayout layout, int detent, int duration, Interpolator interpolator) {
+        this.layout = layout;
+        this.detent = detent;
+        this.duration = duration;
+        this.interpolator = interpolator;
+    }
+
+    public int getTargetDetent() {
+        return detent;
+    }
+
+    /**
+     * 指定的时长，-1 表示按距离和当前速度计算
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    public Interpolator getInterpolator() {
+        return interpolator;
+    }
+
+    public boolean isRunning() {
+        return status == RUNNING;
+    }
+
+    /**
+     * 已经停稳或被取消
+     */
+    public boolean isDone() {
+        return status == SETTLED || status == CANCELLED;
+    }
+
+    public boolean isSettled() {
+        return status == SETTLED;
+    }
+
+    public boolean isCancelled() {
+        return status == CANCELLED;
+    }
+
+    /**
+     * 已经结束时立即回调结果
+     */
+    public DrawerTransition addListener(Listener listener) {
+        if (status == SETTLED) {
+            listener.onSettlingStarted(this);
+            listener.onSettled(this);
+        } else if (status == CANCELLED) {
+            listener.onCancelled(this);
+        } else {
+            if (settlingStarted) {
+                listener.onSettlingStarted(this);
+            }
+            listeners.add(listener);
+        }
+        return this;
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 本次停稳后移动到 detent；本次被取消时，之后的移动也一起取消
+     */
+    public DrawerTransition then(int detent) {
+        return then(detent, -1, null);
+    }
+
+    /**
+     * @param duration     时长，毫秒，-1 表示按距离和速度计算
+     * @param interpolator 为空时使用默认的减速曲线
+     */
+    public DrawerTransition then(int detent, int duration, Interpolator interpolator) {
+        if (next != null) {
+            throw new IllegalStateException("transition is already followed by another one");
+        }
+        next = new DrawerTransition(layout, detent, duration, interpolator);
+        layout.chainTransition(this, next);
+        return next;
+    }
+
+    public DrawerTransition then(ViewState viewState) {
+        return then(layout.getAnchors().indexOf(viewState));
+    }
+
+    DrawerTransition getNext() {
+        return next;
+    }
+
+    /**
+     * 取消本次及之后排队的移动；正在进行时抽屉从当前位置和速度回到最近的 detent
+     */
+    public void cancel() {
+        layout.cancelTransition(this);
+    }
+
+    void markRunning() {
+        status = RUNNING;
+    }
+
+    void dispatchSettlingStarted() {
+        if (settlingStarted || status != RUNNING) {
+            return;
+        }
+        settlingStarted = true;
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onSettlingStarted(this);
+        }
+    }
+
+    /**
+     * @return 停稳时返回排在后面的移动
+     */
+    DrawerTransition finish(boolean settled) {
+        if (isDone()) {
+            return null;
+        }
+        if (settled) {
+            dispatchSettlingStarted();
+        }
+        status = settled ? SETTLED : CANCELLED;
+        for (int i = 0; i < listeners.size(); i++) {
+            if (settled) {
+                listeners.get(i).onSettled(this);
+            } else {
+                listeners.get(i).onCancelled(this);
+            }
+        }
+        listeners.clear();
+        if (!settled && next != null) {
+            next.finish(false);
+            return null;
+        }
+        return next;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.terdrawerlayout;
+
+import android.view.Choreographer;
+
+/**
+ * 跟随滚动
+ * 以 0~1 的进度记录跟随位置，每帧最多把一次偏移交给布局，布局只平移抽屉（RenderNode 的 translationY），
+ * 不再 scrollTo 整个布局、每步重绘所有子 View。跟随范围缓存到布局变化为止。
+ * 抽屉不在跟随位置时偏移为 0，但进度保留，回到跟随位置后恢复
+ */
+class FollowScrollEngine implements Choreographer.FrameCallback {
+
+    interface Callback {
+        /**
+         * 跟随范围，即最大偏移，只在布局变化后重新计算
+         */
+        int computeFollowRange();
+
+        /**
+         * 抽屉是否停在跟随位置
+         */
+        boolean isAtFollowPosition(int range);
+
+        void onFollowOffset(int offset);
+    }
+
+    private final Callback callback;
+    private int range;
+    private boolean rangeValid;
+    private float progress;
+    private int appliedOffset;
+    private boolean framePosted;
+
+    FollowScrollEngine(Callback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 布局尺寸或停靠位置变化
+     */
+    void invalidateRange() {
+        rangeValid = false;
+        schedule();
+    }
+
+    /**
+     * 按像素设置跟随偏移，超出范围时取边界
+     */
+    void scrollTo(int toY) {
+        int range = getRange();
+        setProgress(range > 0 ? (float) toY / range : 0F);
+    }
+
+    void setProgress(float progress) {
+        this.progress = Math.min(Math.max(progress, 0F), 1F);
+        schedule();
+    }
+
+    float getProgress() {
+        return progress;
+    }
+
+    /**
+     * 按当前进度和抽屉位置应该应用的偏移，包括还没到下一帧的更新
+     */
+    int getOffset() {
+        int range = getRange();
+        if (range <= 0 || !callback.isAtFollowPosition(range)) {
+            return 0;
+        }
+        return Math.round(progress * range);
+    }
+
+    /**
+     * 抽屉位置变化后重新校验，偏移在下一帧生效
+     */
+    void schedule() {
+        if (!framePosted) {
+            framePosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 立即应用等待中的更新
+     */
+    void flush() {
+        cancel();
+        apply();
+    }
+
+    void cancel() {
+        if (framePosted) {
+            framePosted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        framePosted = false;
+        apply();
+    }
+
+    private void apply() {
+        int offset = getOffset();
+        if (offset != appliedOffset) {
+            appliedOffset = offset;
+            callback.onFollowOffset(offset);
+        }
+    }
+
+    private int getRange() {
+        if (!rangeValid) {
+            range = Math.max(0, callback.computeFollowRange());
+            rangeValid = true;
+        }
+        return range;
+    }
+}
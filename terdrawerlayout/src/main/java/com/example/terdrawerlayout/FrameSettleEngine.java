@@ -0,0 +1,99 @@
+package com.example.terdrawerlayout;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.Interpolator;
+
+/**
+ * 与 vsync 同步的回弹
+ * 每帧由 Choreographer 回调，用 offsetTopAndBottom 移动抽屉，只更新抽屉自身的显示层，
+ * 不像 computeScroll 那样每帧 invalidate 整个布局
+ */
+class FrameSettleEngine implements Choreographer.FrameCallback {
+
+    interface Callback {
+        void onSettleFrame(int top);
+
+        void onSettleEnd(int top);
+    }
+
+    private final Callback callback;
+    private View view;
+    private boolean running;
+    private int startTop;
+    private int targetTop;
+    private long durationNanos;
+    private long startNanos;
+    private Interpolator interpolator;
+
+    FrameSettleEngine(Callback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * 从 view 当前位置回弹到 targetTop，时长为 0 时直接放置
+     */
+    void start(View view, int targetTop, int durationMs) {
+        start(view, targetTop, durationMs, null);
+    }
+
+    /**
+     * @param interpolator 为空时使用 {@link ReleasePhysics#interpolate(float)} 的减速曲线
+     */
+    void start(View view, int targetTop, int durationMs, Interpolator interpolator) {
+        cancel();
+        this.interpolator = interpolator;
+        this.view = view;
+        this.startTop = view.getTop();
+        this.targetTop = targetTop;
+        if (durationMs <= 0 || startTop == targetTop) {
+            moveTo(targetTop);
+            callback.onSettleEnd(targetTop);
+            return;
+        }
+        this.durationNanos = durationMs * 1000000L;
+        this.startNanos = -1;//第一帧开始计时
+        running = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void cancel() {
+        if (running) {
+            running = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    int getTargetTop() {
+        return targetTop;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+        if (startNanos < 0) {
+            startNanos = frameTimeNanos;
+        }
+        float fraction = Math.min(1F, (frameTimeNanos - startNanos) / (float) durationNanos);
+        float progress = interpolator != null ? interpolator.getInterpolation(fraction) : ReleasePhysics.interpolate(fraction);
+        int top = startTop + Math.round((targetTop - startTop) * progress);
+        moveTo(top);
+        if (fraction < 1F) {
+            callback.onSettleFrame(top);
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            running = false;
+            callback.onSettleEnd(top);
+        }
+    }
+
+    private void moveTo(int top) {
+        view.offsetTopAndBottom(top - view.getTop());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.terdrawerlayout;
+
+import android.view.Choreographer;
+
+import androidx.customview.widget.ViewDragHelper;
+
+/**
+ * 按手势统计帧数与耗时，计数都写在预分配的 {@link GestureSummary} 里
+ * 手势从 ACTION_DOWN（或程序触发的移动）开始，到手指抬起且抽屉回到静止时结束；抽屉没有移动过的点击不上报
+ */
+class GestureMetrics implements Choreographer.FrameCallback {
+
+    private final TertiaryDrawerLayout.OnGestureMetricsListener listener;
+    private final GestureSummary summary = new GestureSummary();
+
+    private long frameBudgetNanos = 16666667L;
+    private boolean active;
+    private boolean touching;
+    private boolean moved;
+    private int motionState = ViewDragHelper.STATE_IDLE;
+    private long startNanos;
+    private long settleStartNanos;
+    private long lastFrameNanos;
+    private boolean framePosted;
+
+    GestureMetrics(TertiaryDrawerLayout.OnGestureMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    void setRefreshRate(float refreshRate) {
+        if (refreshRate > 0F) {
+            frameBudgetNanos = (long) (1000000000L / refreshRate);
+        }
+    }
+
+    void onTouchDown() {
+        if (!active) {
+            begin(true);
+        }
+        touching = true;
+    }
+
+    /**
+     * @return 手势是否在此结束，结束时由调用方传入最终状态
+     */
+    boolean onTouchUp() {
+        touching = false;
+        return active && motionState == ViewDragHelper.STATE_IDLE;
+    }
+
+    void onDrawerMoved() {
+        if (!active) {
+            return;
+        }
+        if (!moved) {
+            moved = true;
+            if (summary.fromTouch) {
+                summary.touchToFirstMoveNanos = System.nanoTime() - startNanos;
+            }
+        }
+    }
+
+    void addProxyNanos(long nanos) {
+        if (active) {
+            summary.proxyNanos += nanos;
+        }
+    }
+
+    /**
+     * @return 手势是否在此结束
+     */
+    boolean onMotionStateChanged(int state) {
+        long now = System.nanoTime();
+        if (!active && state != ViewDragHelper.STATE_IDLE) {
+            begin(false);
+        }
+        if (!active) {
+            return false;
+        }
+        if (state == ViewDragHelper.STATE_SETTLING && motionState != ViewDragHelper.STATE_SETTLING) {
+            settleStartNanos = now;
+        } else if (state != ViewDragHelper.STATE_SETTLING && motionState == ViewDragHelper.STATE_SETTLING) {
+            summary.settleNanos += now - settleStartNanos;
+        }
+        motionState = state;
+        if (state != ViewDragHelper.STATE_IDLE) {
+            postFrame();
+            return false;
+        }
+        return !touching;
+    }
+
+    void finish(ViewState finalState, int finalDetent) {
+        if (!active) {
+            return;
+        }
+        cancelFrame();
+        active = false;
+        if (!moved) {
+            return;
+        }
+        summary.durationNanos = System.nanoTime() - startNanos;
+        summary.finalState = finalState;
+        summary.finalDetent = finalDetent;
+        listener.onGestureSummary(summary);
+    }
+
+    void cancel() {
+        cancelFrame();
+        active = false;
+        touching = false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        framePosted = false;
+        if (!active || motionState == ViewDragHelper.STATE_IDLE) {
+            return;
+        }
+        if (motionState == ViewDragHelper.STATE_DRAGGING) {
+            summary.dragFrames++;
+        } else {
+            summary.settleFrames++;
+        }
+        if (lastFrameNanos != 0 && frameTimeNanos - lastFrameNanos > frameBudgetNanos * 3 / 2) {
+            summary.jankFrames++;
+        }
+        lastFrameNanos = frameTimeNanos;
+        postFrame();
+    }
+
+    private void begin(boolean fromTouch) {
+        summary.reset();
+        summary.fromTouch = fromTouch;
+        active = true;
+        moved = false;
+        motionState = ViewDragHelper.STATE_IDLE;
+        startNanos = System.nanoTime();
+        lastFrameNanos = 0;
+    }
+
+    private void postFrame() {
+        if (!framePosted) {
+            framePosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private void cancelFrame() {
+        if (framePosted) {
+            framePosted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.terdrawerlayout;
+
+import android.view.MotionEvent;
+
+import androidx.customview.widget.ViewDragHelper;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 触摸事件与抽屉状态变化的录制，用于复现拦截问题和回放回归测试
+ * 每个事件记录 action、相对第一次按下的时间、布局坐标，以及事件处理完后抽屉的 top 和运动状态；
+ * 状态变化记录发生时已经录制的事件数，松手时决定的目标 detent 因此落在 ACTION_UP 上；
+ * 运动状态的每次变化记录相对第一次按下的时间，回放时据此比较回弹的开始和结束时刻。
+ * 只记录第一个触点的坐标
+ */
+public final class GestureRecording {
+
+    private static final int MAGIC = 0x54444752;//TDGR
+    private static final int VERSION = 2;//1 没有运动状态变化的记录
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_COUNT = 1 << 16;//读取时事件数和状态变化数的上限，防止损坏的数据申请过大的数组
+    private static final ViewState[] STATES = ViewState.values();
+
+    private int width;
+    private int height;
+    private long baseTime = -1;
+
+    private int eventCount;
+    private int[] actions = new int[INITIAL_CAPACITY];
+    private int[] times = new int[INITIAL_CAPACITY];
+    private float[] xs = new float[INITIAL_CAPACITY];
+    private float[] ys = new float[INITIAL_CAPACITY];
+    private int[] tops = new int[INITIAL_CAPACITY];
+    private byte[] motionStates = new byte[INITIAL_CAPACITY];
+
+    private int transitionCount;
+    private int[] transitionEvents = new int[INITIAL_CAPACITY];
+    private byte[] transitionStates = new byte[INITIAL_CAPACITY];
+    private int[] transitionDetents = new int[INITIAL_CAPACITY];
+
+    private int motionChangeCount;
+    private int[] motionChangeTimes = new int[INITIAL_CAPACITY];
+    private byte[] motionChangeStates = new byte[INITIAL_CAPACITY];
+
+    void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    void appendEvent(MotionEvent ev, int top, int motionState) {
+        if (baseTime < 0) {
+            baseTime = ev.getDownTime();
+        }
+        if (eventCount == actions.length) {
+            int capacity = eventCount * 2;
+            actions = Arrays.copyOf(actions, capacity);
+            times = Arrays.copyOf(times, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            tops = Arrays.copyOf(tops, capacity);
+            motionStates = Arrays.copyOf(motionStates, capacity);
+        }
+        actions[eventCount] = ev.getAction();
+        times[eventCount] = (int) (ev.getEventTime() - baseTime);
+        xs[eventCount] = ev.getX();
+        ys[eventCount] = ev.getY();
+        tops[eventCount] = top;
+        motionStates[eventCount] = (byte) motionState;
+        eventCount++;
+    }
+
+    void appendTransition(ViewState state, int detent) {
+        if (transitionCount == transitionEvents.length) {
+            int capacity = transitionCount * 2;
+            transitionEvents = Arrays.copyOf(transitionEvents, capacity);
+            transitionStates = Arrays.copyOf(transitionStates, capacity);
+            transitionDetents = Arrays.copyOf(transitionDetents, capacity);
+        }
+        transitionEvents[transitionCount] = eventCount;
+        transitionStates[transitionCount] = (byte) state.ordinal();
+        transitionDetents[transitionCount] = detent;
+        transitionCount++;
+    }
+
+    /**
+     * 第一次按下之前的变化不记录
+     */
+    void appendMotionChange(long uptimeMillis, int motionState) {
+        if (baseTime < 0) {
+            return;
+        }
+        if (motionChangeCount == motionChangeTimes.length) {
+            int capacity = motionChangeCount * 2;
+            motionChangeTimes = Arrays.copyOf(motionChangeTimes, capacity);
+            motionChangeStates = Arrays.copyOf(motionChangeStates, capacity);
+        }
+        motionChangeTimes[motionChangeCount] = (int) (uptimeMillis - baseTime);
+        motionChangeStates[motionChangeCount] = (byte) motionState;
+        motionChangeCount++;
+    }
+
+    /**
+     * 录制开始时布局的宽高，回放时需要相同尺寸的布局
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * {@link MotionEvent#getAction()} 的原始值，包含触点下标
+     */
+    public int getAction(int index) {
+        return actions[index];
+    }
+
+    /**
+     * 相对第一次按下的毫秒数
+     */
+    public int getEventTime(int index) {
+        return times[index];
+    }
+
+    public float getX(int index) {
+        return xs[index];
+    }
+
+    public float getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * 事件处理完后抽屉的 top
+     */
+    public int getTop(int index) {
+        return tops[index];
+    }
+
+    /**
+     * 事件处理完后的运动状态，取值同 ViewDragHelper.STATE_*
+     */
+    public int getMotionState(int index) {
+        return motionStates[index];
+    }
+
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    /**
+     * 状态变化发生时已经录制的事件数
+     */
+    public int getTransitionEvent(int index) {
+        return transitionEvents[index];
+    }
+
+    public ViewState getTransitionState(int index) {
+        return STATES[transitionStates[index]];
+    }
+
+    public int getTransitionDetent(int index) {
+        return transitionDetents[index];
+    }
+
+    public int getMotionChangeCount() {
+        return motionChangeCount;
+    }
+
+    /**
+     * 运动状态变化时相对第一次按下的毫秒数
+     */
+    public int getMotionChangeTime(int index) {
+        return motionChangeTimes[index];
+    }
+
+    /**
+     * 变化后的运动状态，取值同 ViewDragHelper.STATE_*
+     */
+    public int getMotionChangeState(int index) {
+        return motionChangeStates[index];
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            out.writeShort(actions[i]);
+            out.writeInt(times[i]);
+            out.writeFloat(xs[i]);
+            out.writeFloat(ys[i]);
+            out.writeInt(tops[i]);
+            out.writeByte(motionStates[i]);
+        }
+        out.writeInt(transitionCount);
+        for (int i = 0; i < transitionCount; i++) {
+            out.writeInt(transitionEvents[i]);
+            out.writeByte(transitionStates[i]);
+            out.writeInt(transitionDetents[i]);
+        }
+        out.writeInt(motionChangeCount);
+        for (int i = 0; i < motionChangeCount; i++) {
+            out.writeInt(motionChangeTimes[i]);
+            out.writeByte(motionChangeStates[i]);
+        }
+        out.flush();
+    }
+
+    public static GestureRecording readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a gesture recording");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("unsupported gesture recording version " + version);
+        }
+        GestureRecording recording = new GestureRecording();
+        recording.width = in.readInt();
+        recording.height = in.readInt();
+        if (recording.width < 0 || recording.height < 0) {
+            throw new IOException("invalid layout size " + recording.width + "x" + recording.height);
+        }
+        int events = readCount(in, "event");
+        recording.ensureEventCapacity(events);
+        for (int i = 0; i < events; i++) {
+            recording.actions[i] = in.readUnsignedShort();
+            recording.times[i] = in.readInt();
+            recording.xs[i] = in.readFloat();
+            recording.ys[i] = in.readFloat();
+            recording.tops[i] = in.readInt();
+            recording.motionStates[i] = readMotionState(in, "event", i);
+        }
+        recording.eventCount = events;
+        int transitions = readCount(in, "transition");
+        recording.ensureTransitionCapacity(transitions);
+        for (int i = 0; i < transitions; i++) {
+            int event = in.readInt();
+            byte state = in.readByte();
+            int detent = in.readInt();
+            if (event < 0 || event > events) {
+                throw new IOException("transition " + i + " refers to event " + event + " of " + events);
+            }
+            if (state < 0 || state >= STATES.length) {
+                throw new IOException("invalid state " + state + " of transition " + i);
+            }
+            if (detent < 0) {
+                throw new IOException("invalid detent " + detent + " of transition " + i);
+            }
+            recording.transitionEvents[i] = event;
+            recording.transitionStates[i] = state;
+            recording.transitionDetents[i] = detent;
+        }
+        recording.transitionCount = transitions;
+        if (version >= 2) {
+            int changes = readCount(in, "motion change");
+            recording.ensureMotionChangeCapacity(changes);
+            for (int i = 0; i < changes; i++) {
+                int time = in.readInt();
+                if (time < 0) {
+                    throw new IOException("invalid time " + time + " of motion change " + i);
+                }
+                recording.motionChangeTimes[i] = time;
+                recording.motionChangeStates[i] = readMotionState(in, "motion change", i);
+            }
+            recording.motionChangeCount = changes;
+        }
+        return recording;
+    }
+
+    private static byte readMotionState(DataInputStream in, String name, int index) throws IOException {
+        byte motionState = in.readByte();
+        if (motionState < ViewDragHelper.STATE_IDLE || motionState > ViewDragHelper.STATE_SETTLING) {
+            throw new IOException("invalid motion state " + motionState + " of " + name + " " + index);
+        }
+        return motionState;
+    }
+
+    private static int readCount(DataInputStream in, String name) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("invalid " + name + " count " + count);
+        }
+        return count;
+    }
+
+    private void ensureEventCapacity(int capacity) {
+        if (capacity > actions.length) {
+            actions = new int[capacity];
+            times = new int[capacity];
+            xs = new float[capacity];
+            ys = new float[capacity];
+            tops = new int[capacity];
+            motionStates = new byte[capacity];
+        }
+    }
+
+    private void ensureMotionChangeCapacity(int capacity) {
+        if (capacity > motionChangeTimes.length) {
+            motionChangeTimes = new int[capacity];
+            motionChangeStates = new byte[capacity];
+        }
+    }
+
+    private void ensureTransitionCapacity(int capacity) {
+        if (capacity > transitionEvents.length) {
+            transitionEvents = new int[capacity];
+            transitionStates = new byte[capacity];
+            transitionDetents = new int[capacity];
+        }
+    }
+}
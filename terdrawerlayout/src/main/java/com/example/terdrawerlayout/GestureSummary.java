@@ -0,0 +1,100 @@
+package com.example.terdrawerlayout;
+
+/**
+ * 一次手势（或一次程序触发的移动）的耗时统计
+ * 实例会被复用，只在 {@link TertiaryDrawerLayout.OnGestureMetricsListener#onGestureSummary} 回调期间有效，需要保留时自行拷贝
+ */
+public final class GestureSummary {
+
+    boolean fromTouch;
+    long touchToFirstMoveNanos;
+    int dragFrames;
+    int settleFrames;
+    int jankFrames;
+    long settleNanos;
+    long proxyNanos;
+    long durationNanos;
+    ViewState finalState;
+    int finalDetent;
+
+    void reset() {
+        fromTouch = false;
+        touchToFirstMoveNanos = -1;
+        dragFrames = 0;
+        settleFrames = 0;
+        jankFrames = 0;
+        settleNanos = 0;
+        proxyNanos = 0;
+        durationNanos = 0;
+        finalState = null;
+        finalDetent = -1;
+    }
+
+    /**
+     * 是否由触摸发起，false 表示 changeDrawerState 等程序调用
+     */
+    public boolean isFromTouch() {
+        return fromTouch;
+    }
+
+    /**
+     * 按下到抽屉第一次移动的时间，抽屉未移动或非触摸发起时为 -1
+     */
+    public long getTouchToFirstMoveNanos() {
+        return touchToFirstMoveNanos;
+    }
+
+    public int getDragFrames() {
+        return dragFrames;
+    }
+
+    public int getSettleFrames() {
+        return settleFrames;
+    }
+
+    /**
+     * 与上一帧间隔超过 1.5 倍帧预算的帧数
+     */
+    public int getJankFrames() {
+        return jankFrames;
+    }
+
+    public long getSettleNanos() {
+        return settleNanos;
+    }
+
+    /**
+     * 期间调用 IContentHeightProxy 的总耗时
+     */
+    public long getProxyNanos() {
+        return proxyNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public ViewState getFinalState() {
+        return finalState;
+    }
+
+    public int getFinalDetent() {
+        return finalDetent;
+    }
+
+    @Override
+    public String toString() {
+        return "GestureSummary{" +
+                "fromTouch=" + fromTouch +
+                ", touchToFirstMoveNanos=" + touchToFirstMoveNanos +
+                ", dragFrames=" + dragFrames +
+                ", settleFrames=" + settleFrames +
+                ", jankFrames=" + jankFrames +
+                ", settleNanos=" + settleNanos +
+                ", proxyNanos=" + proxyNanos +
+                ", durationNanos=" + durationNanos +
+                ", finalState=" + finalState +
+                ", finalDetent=" + finalDetent +
+                '}';
+    }
+}
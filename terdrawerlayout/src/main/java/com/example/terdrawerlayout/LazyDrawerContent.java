@@ -0,0 +1,128 @@
+package com.example.terdrawerlayout;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+
+/**
+ * 抽屉内容的延迟加载
+ * 抽屉（第一个子 View）只是一个容器，加载前只放一个 CLOSE 露出高度的空白占位；真正的内容布局在后台线程异步加载，
+ * 或者在第一次需要展开时同步加载，加载完成后替换占位并回调 {@link TertiaryDrawerLayout.OnContentReadyListener}
+ */
+class LazyDrawerContent {
+
+    private final int layoutRes;
+    private final int mode;
+    private TertiaryDrawerLayout.OnContentReadyListener listener;
+    private ViewGroup container;
+    private View content;
+    private View placeholder;
+    private boolean inflating;
+
+    LazyDrawerContent(int layoutRes, int mode) {
+        this.layoutRes = layoutRes;
+        this.mode = mode;
+    }
+
+    void setListener(TertiaryDrawerLayout.OnContentReadyListener listener) {
+        this.listener = listener;
+        if (listener != null && content != null) {
+            listener.onContentReady(content);
+        }
+    }
+
+    void setContainer(View drawer) {
+        if (!(drawer instanceof ViewGroup)) {
+            throw new IllegalStateException("lazy drawer content needs a ViewGroup as the drawer");
+        }
+        container = (ViewGroup) drawer;
+        if (content != null) {
+            return;
+        }
+        if (placeholder == null) {
+            placeholder = new View(drawer.getContext());
+        } else if (placeholder.getParent() instanceof ViewGroup) {
+            ((ViewGroup) placeholder.getParent()).removeView(placeholder);
+        }
+        container.addView(placeholder, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0));
+    }
+
+    /**
+     * 测量过程中调用，直接修改占位的 LayoutParams，不再请求布局
+     *
+     * @param peekHeight CLOSE 时抽屉露出的高度
+     * @return 占位高度是否变化，变化后抽屉需要重新测量
+     */
+    boolean setPlaceholderHeight(int peekHeight) {
+        if (placeholder == null || placeholder.getParent() == null) {
+            return false;
+        }
+        ViewGroup.LayoutParams lp = placeholder.getLayoutParams();
+        if (lp.height == peekHeight) {
+            return false;
+        }
+        lp.height = peekHeight;
+        return true;
+    }
+
+    View getPlaceholder() {
+        return placeholder;
+    }
+
+    int getMode() {
+        return mode;
+    }
+
+    boolean isReady() {
+        return content != null;
+    }
+
+    View getContent() {
+        return content;
+    }
+
+    /**
+     * 开始后台加载，已经在加载或已加载时忽略
+     */
+    void inflateAsync() {
+        if (content != null || inflating || container == null) {
+            return;
+        }
+        inflating = true;
+        new AsyncLayoutInflater(container.getContext()).inflate(layoutRes, container, new AsyncLayoutInflater.OnInflateFinishedListener() {
+            @Override
+            public void onInflateFinished(@NonNull View view, int resid, ViewGroup parent) {
+                //期间可能已经同步加载过
+                if (inflating) {
+                    attach(view);
+                }
+            }
+        });
+    }
+
+    /**
+     * 立即在当前线程加载，正在进行的后台加载结果会被丢弃
+     */
+    void inflateNow() {
+        if (content != null || container == null) {
+            return;
+        }
+        attach(LayoutInflater.from(container.getContext()).inflate(layoutRes, container, false));
+    }
+
+    private void attach(View view) {
+        inflating = false;
+        content = view;
+        if (placeholder != null) {
+            container.removeView(placeholder);
+            placeholder = null;
+        }
+        container.addView(view);
+        if (listener != null) {
+            listener.onContentReady(view);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.terdrawerlayout;
+
+import android.view.MotionEvent;
+
+/**
+ * 跟踪一次手势中的活动触点，坐标为屏幕坐标的浮点值（宿主原点 + 事件坐标，非第一个触点没有 raw 坐标）
+ * 活动触点抬起时交给剩下的触点，同时平移位移的参考点，累计位移保持连续，第二根手指不会让位移跳变
+ */
+class PointerTracker {
+
+    static final int INVALID_POINTER = -1;
+
+    private int activePointerId = INVALID_POINTER;
+    private float startX;//手势按下的位置，交接时不变
+    private float startY;
+    private float referenceX;//位移的参考点
+    private float referenceY;
+    private float x;
+    private float y;
+
+    void onTouchEvent(MotionEvent ev, float originX, float originY) {
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                activePointerId = ev.getPointerId(0);
+                x = originX + ev.getX(0);
+                y = originY + ev.getY(0);
+                startX = referenceX = x;
+                startY = referenceY = y;
+                break;
+            case MotionEvent.ACTION_MOVE: {
+                int index = ev.findPointerIndex(activePointerId);
+                if (index >= 0) {
+                    x = originX + ev.getX(index);
+                    y = originY + ev.getY(index);
+                }
+                break;
+            }
+            case MotionEvent.ACTION_POINTER_UP: {
+                int index = ev.getActionIndex();
+                if (ev.getPointerId(index) != activePointerId) {
+                    break;
+                }
+                int newIndex = index == 0 ? 1 : 0;
+                float dx = x - referenceX;
+                float dy = y - referenceY;
+                activePointerId = ev.getPointerId(newIndex);
+                x = originX + ev.getX(newIndex);
+                y = originY + ev.getY(newIndex);
+                referenceX = x - dx;
+                referenceY = y - dy;
+                break;
+            }
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                activePointerId = INVALID_POINTER;
+                break;
+        }
+    }
+
+    int getActivePointerId() {
+        return activePointerId;
+    }
+
+    float getX() {
+        return x;
+    }
+
+    float getY() {
+        return y;
+    }
+
+    float getStartX() {
+        return startX;
+    }
+
+    float getStartY() {
+        return startY;
+    }
+
+    /**
+     * 活动触点相对按下位置的累计位移，触点交接不改变这个值
+     */
+    float getDeltaX() {
+        return x - referenceX;
+    }
+
+    float getDeltaY() {
+        return y - referenceY;
+    }
+}
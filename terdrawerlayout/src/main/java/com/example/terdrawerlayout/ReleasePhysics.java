@@ -0,0 +1,102 @@
+package com.example.terdrawerlayout;
+
+/**
+ * 松手后的物理模型
+ * 按减速模型把松手速度投影成静止位置，用来选择停靠的 detent；
+ * 回弹使用 1-(1-t)^2 的减速曲线，时长让起始速度与松手速度衔接，没有可用速度时按剩余距离缩放
+ */
+public class ReleasePhysics {
+
+    /**
+     * 减速模型
+     */
+    public enum Deceleration {
+        EXPONENTIAL, // 速度按 friction 指数衰减，滑行距离 v / friction
+        CONSTANT     // 匀减速，滑行距离 v² / (2 * deceleration)
+    }
+
+    private Deceleration deceleration = Deceleration.EXPONENTIAL;
+    private float friction = 4.2F;//1/s
+    private float decelerationRate = 8000F;//px/s²
+    private float minVelocity = 50F;//px/s，低于此速度视为没有甩动
+    private int minDuration = 120;//ms
+    private int maxDuration = 400;//ms
+
+    public Deceleration getDeceleration() {
+        return deceleration;
+    }
+
+    public void setDeceleration(Deceleration deceleration) {
+        this.deceleration = deceleration;
+    }
+
+    /**
+     * EXPONENTIAL 模型的摩擦系数，越大滑行越短
+     */
+    public void setFriction(float friction) {
+        this.friction = Math.max(friction, 0.01F);
+    }
+
+    /**
+     * CONSTANT 模型的减速度，单位 px/s²
+     */
+    public void setDecelerationRate(float decelerationRate) {
+        this.decelerationRate = Math.max(decelerationRate, 1F);
+    }
+
+    public void setMinVelocity(float minVelocity) {
+        this.minVelocity = Math.max(minVelocity, 0F);
+    }
+
+    public void setDurationRange(int minDuration, int maxDuration) {
+        this.minDuration = Math.max(minDuration, 0);
+        this.maxDuration = Math.max(maxDuration, this.minDuration);
+    }
+
+    /**
+     * 松手速度在当前减速模型下还能滑行的距离，符号与速度一致
+     *
+     * @param velocity px/s
+     */
+    public float projectDistance(float velocity) {
+        if (Math.abs(velocity) < minVelocity) {
+            return 0F;
+        }
+        if (deceleration == Deceleration.CONSTANT) {
+            return Math.signum(velocity) * velocity * velocity / (2F * decelerationRate);
+        }
+        return velocity / friction;
+    }
+
+    /**
+     * 回弹时长
+     * 速度朝向目标时，减速曲线起始斜率为 2，起始速度 2d/T 与松手速度相等得 T = 2d/v；
+     * 否则按 sqrt(距离/总行程) 缩放 maxDuration
+     *
+     * @param distance 到目标的距离，px
+     * @param velocity 松手速度，px/s
+     * @param range    可拖动的总行程，px
+     * @return ms
+     */
+    public int computeSettleDuration(float distance, float velocity, float range) {
+        float absDistance = Math.abs(distance);
+        if (absDistance < 1F) {
+            return 0;
+        }
+        float duration;
+        if (Math.abs(velocity) >= minVelocity && Math.signum(velocity) == Math.signum(distance)) {
+            duration = 2F * absDistance / Math.abs(velocity) * 1000F;
+        } else {
+            duration = maxDuration * (float) Math.sqrt(Math.min(1F, absDistance / Math.max(range, 1F)));
+        }
+        return (int) Math.min(maxDuration, Math.max(minDuration, duration));
+    }
+
+    /**
+     * 回弹使用的减速曲线
+     */
+    public static float interpolate(float input) {
+        float t = 1F - input;
+        return 1F - t * t;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.terdrawerlayout;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * 抽屉内可滚动控件的索引
+ * 布局或层级变化后失效，下一次 ACTION_DOWN 时重建；只保留通向可滚动控件的分支，解析触点时从 root 沿触点向下查找，不分配内存
+ */
+class ScrollableTargetIndex {
+
+    private View root;
+    /**
+     * 剪枝后的子树，按先序平铺：nodes[0] 为 root，firstChild/nextSibling 为下标，-1 表示没有
+     */
+    private View[] nodes = new View[8];
+    private int[] firstChild = new int[8];
+    private int[] nextSibling = new int[8];
+    private int size;
+    private boolean dirty = true;
+
+    void setRoot(@Nullable View root) {
+        this.root = root;
+        invalidate();
+    }
+
+    /**
+     * onLayout 或层级变化时调用，释放旧的引用，等待下一次 ACTION_DOWN 重建
+     */
+    void invalidate() {
+        if (size > 0) {
+            Arrays.fill(nodes, 0, size, null);
+            size = 0;
+        }
+        dirty = true;
+    }
+
+    /**
+     * 查找触点下最外层的 NestedScrollView/RecyclerView，与 {@link ViewExtUtil#findScrollableTarget} 结果一致
+     * 只访问包含触点且通向可滚动控件的节点，开销为 O(深度 × 该层通向可滚动控件的兄弟数)，与索引的目标总数无关
+     *
+     * @param x 相对于 root 左上角的坐标
+     * @param y 相对于 root 左上角的坐标
+     */
+    @Nullable
+    View find(float x, float y) {
+        if (root == null || !inside(x, y, root)) {
+            return null;
+        }
+        if (dirty) {
+            rebuild();
+        }
+        return size == 0 ? null : findIn(0, x, y);
+    }
+
+    /**
+     * 按子 View 下标顺序向下查找；包含触点的子树中没有命中时才继续比较后面的兄弟
+     *
+     * @param x 相对于 nodes[node] 左上角的坐标
+     * @param y 相对于 nodes[node] 左上角的坐标
+     */
+    @Nullable
+    private View findIn(int node, float x, float y) {
+        View view = nodes[node];
+        if (ViewExtUtil.isScrollable(view)) {
+            return view;
+        }
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            View childView = nodes[child];
+            float childX = x - childView.getLeft() - childView.getTranslationX() + view.getScrollX();
+            float childY = y - childView.getTop() - childView.getTranslationY() + view.getScrollY();
+            if (inside(childX, childY, childView)) {
+                View target = findIn(child, childX, childY);
+                if (target != null) {
+                    return target;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void rebuild() {
+        size = 0;
+        if (root != null) {
+            collect(root);
+        }
+        dirty = false;
+    }
+
+    /**
+     * 先序收集通向可滚动控件的节点，不继续深入可滚动控件本身
+     *
+     * @return 节点下标，子树中没有可滚动控件时回退并返回 -1
+     */
+    private int collect(View view) {
+        int node = append(view);
+        if (ViewExtUtil.isScrollable(view)) {
+            return node;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup viewGroup = (ViewGroup) view;
+            int last = -1;
+            for (int i = 0; i < viewGroup.getChildCount(); i++) {
+                int child = collect(viewGroup.getChildAt(i));
+                if (child < 0) {
+                    continue;
+                }
+                if (last < 0) {
+                    firstChild[node] = child;
+                } else {
+                    nextSibling[last] = child;
+                }
+                last = child;
+            }
+        }
+        if (firstChild[node] < 0) {
+            nodes[node] = null;
+            size = node;
+            return -1;
+        }
+        return node;
+    }
+
+    private int append(View view) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            firstChild = Arrays.copyOf(firstChild, size * 2);
+            nextSibling = Arrays.copyOf(nextSibling, size * 2);
+        }
+        nodes[size] = view;
+        firstChild[size] = -1;
+        nextSibling[size] = -1;
+        return size++;
+    }
+
+    private static boolean inside(float x, float y, View view) {
+        return x >= 0F && x <= view.getWidth() && y >= 0F && y <= view.getHeight();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.terdrawerlayout;
+
+import android.view.Choreographer;
+
+import java.util.Arrays;
+
+/**
+ * 按注册顺序保存 {@link TertiaryDrawerLayout.OnStatusChangeListener} 的写时复制数组
+ * 分发时按下标遍历快照，不分配迭代器，回调中增删监听也不影响本次分发。
+ * 开启合并后，位置回调每个 vsync 最多分发一次，携带该帧最新的位置
+ */
+class StatusListenerRegistry implements Choreographer.FrameCallback {
+
+    private static final TertiaryDrawerLayout.OnStatusChangeListener[] EMPTY = new TertiaryDrawerLayout.OnStatusChangeListener[0];
+
+    private volatile TertiaryDrawerLayout.OnStatusChangeListener[] listeners = EMPTY;
+
+    private boolean coalescing;
+    private boolean framePosted;
+    private int pendingOffset;
+    private float pendingProgress;
+
+    synchronized boolean add(TertiaryDrawerLayout.OnStatusChangeListener listener) {
+        if (listener == null || indexOf(listener) >= 0) {
+            return false;
+        }
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        TertiaryDrawerLayout.OnStatusChangeListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+        return true;
+    }
+
+    synchronized boolean remove(TertiaryDrawerLayout.OnStatusChangeListener listener) {
+        int index = indexOf(listener);
+        if (index < 0) {
+            return false;
+        }
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        if (current.length == 1) {
+            listeners = EMPTY;
+            return true;
+        }
+        TertiaryDrawerLayout.OnStatusChangeListener[] updated = new TertiaryDrawerLayout.OnStatusChangeListener[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        listeners = updated;
+        return true;
+    }
+
+    private int indexOf(TertiaryDrawerLayout.OnStatusChangeListener listener) {
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    void setCoalescing(boolean coalescing) {
+        if (this.coalescing == coalescing) {
+            return;
+        }
+        this.coalescing = coalescing;
+        if (!coalescing && framePosted) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            framePosted = false;
+            dispatchPositionNow(pendingOffset, pendingProgress);
+        }
+    }
+
+    boolean isCoalescing() {
+        return coalescing;
+    }
+
+    /**
+     * 丢弃尚未分发的合并位置，布局 detach 时调用
+     */
+    void cancelPending() {
+        if (framePosted) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            framePosted = false;
+        }
+    }
+
+    /**
+     * @param offset   抽屉 top
+     * @param progress 0 为最收起的 detent，1 为最展开的 detent
+     */
+    void dispatchPosition(int offset, float progress) {
+        if (listeners.length == 0) {
+            return;
+        }
+        if (!coalescing) {
+            dispatchPositionNow(offset, progress);
+            return;
+        }
+        pendingOffset = offset;
+        pendingProgress = progress;
+        if (!framePosted) {
+            framePosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        framePosted = false;
+        dispatchPositionNow(pendingOffset, pendingProgress);
+    }
+
+    private void dispatchPositionNow(int offset, float progress) {
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].onDragging(offset);
+            current[i].onDragProgress(offset, progress);
+        }
+    }
+
+    void dispatchMoving(int top) {
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].onMoving(top);
+        }
+    }
+
+    void dispatchStateChange(ViewState viewState, int detent) {
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].onStateChange(viewState);
+            current[i].onDetentChange(detent);
+        }
+    }
+
+    void dispatchSettlingStarted(ViewState viewState, int detent) {
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].onSettlingStarted(viewState, detent);
+        }
+    }
+
+    void dispatchSettled(ViewState viewState, int detent) {
+        TertiaryDrawerLayout.OnStatusChangeListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].onSettled(viewState, detent);
+        }
+    }
+}
@@ -1,34 +1,137 @@
 package com.example.terdrawerlayout;
 
-import static androidx.drawerlayout.widget.DrawerLayout.STATE_DRAGGING;
-
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewConfiguration;
+import android.view.ViewTreeObserver;
+import android.view.animation.Interpolator;
+import android.widget.OverScroller;
 import android.widget.RelativeLayout;
 
 import androidx.annotation.NonNull;
+import androidx.core.view.NestedScrollingParent3;
+import androidx.core.view.NestedScrollingParentHelper;
+import androidx.core.view.ViewCompat;
 import androidx.core.widget.NestedScrollView;
+import androidx.customview.view.AbsSavedState;
 import androidx.customview.widget.ViewDragHelper;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 三级抽屉，提供悬停功能，通过VerticalDrawerLayout修改
  */
-public class TertiaryDrawerLayout extends RelativeLayout {
+public class TertiaryDrawerLayout extends RelativeLayout implements NestedScrollingParent3 {
+
+    /**
+     * 抽屉内容在布局 attach 后由后台线程加载
+     */
+    public static final int CONTENT_INFLATE_ASYNC = 1;
+    /**
+     * 抽屉内容在第一次展开或拖动时加载
+     */
+    public static final int CONTENT_INFLATE_ON_DEMAND = 2;
 
-    private static final String TAG = TertiaryDrawerLayout.class.getSimpleName();
+    private DrawerDiagnostics diagnostics;
+    private GestureMetrics gestureMetrics;
+    private GestureRecording gestureRecording;
 
     private View drawerView;
+    private LazyDrawerContent lazyContent;
+    private final DrawerArbiter arbiter = new DrawerArbiter();
+    private DrawerArbiter.SecondaryDrawer capturedSecondary;//ViewDragHelper 当前捕获的其他抽屉
+    private OnDrawerDetentChangeListener drawerDetentChangeListener;
+    private final DrawerEffects effects = new DrawerEffects();
+    private int parallaxBackgroundId;
+    private float parallaxFactor;
+    private boolean suspendWhenHidden = false;
+    private boolean drawerSuspended;//完全隐藏时设为 GONE，不参与测量、布局、绘制和命中测试
+    private int suspendedVisibility;
+    private OnDrawerLifecycleListener drawerLifecycleListener;
+    private final Runnable suspendCheck = new Runnable() {
+        @Override
+        public void run() {
+            if (isDrawerHidden()) {
+                suspendDrawer();
+            }
+        }
+    };
+    private final Runnable resumeCheck = new Runnable() {
+        @Override
+        public void run() {
+            resumeIfExposed();
+        }
+    };
+    private OnContentReadyListener contentReadyListener;
     private ViewDragHelper dragHelper;
     private ViewState drawerState = ViewState.CLOSE;
+    private int drawerDetent = -1;//额外 detent 的下标，-1 表示停在 drawerState 对应的预设位置
+    private int drawerDetentHeight;
+    private boolean drawerLaidOut;
+    private int laidOutAnchorGeneration;
+    private float releaseProjection = 0F;//松手速度的投影时间，单位秒
+    private float dragPrediction = 0F;//拖动时预测手指位置的提前量，单位秒
+    private final DragPredictor dragPredictor = new DragPredictor();
+    private float predictionOffset;
+    private int followOffset;
+    private final FollowScrollEngine followScroll = new FollowScrollEngine(new FollowScrollEngine.Callback() {
+        @Override
+        public int computeFollowRange() {
+            return drawerView == null ? 0 : drawerView.getHeight() - ViewState.FILL.getTop(TertiaryDrawerLayout.this);
+        }
+
+        @Override
+        public boolean isAtFollowPosition(int range) {
+            //跟随的时候，抽屉一定是在底部的，不在底部说明跟随时调用了弹起
+            return drawerView != null && drawerView.getTop() == range;
+        }
+
+        @Override
+        public void onFollowOffset(int offset) {
+            followOffset = offset;
+            updateDrawerTranslation();
+        }
+    });
+    private ReleasePhysics releasePhysics;
+    private OverScroller settleScroller;//物理回弹使用，ViewDragHelper 的回弹时长无法指定
+    private ReleasePhysics defaultPhysics;
+    private boolean frameSettleEnabled = false;
+    private final FrameSettleEngine frameSettleEngine = new FrameSettleEngine(new FrameSettleEngine.Callback() {
+        @Override
+        public void onSettleFrame(int top) {
+            postOnDraggingState(top);
+        }
+
+        @Override
+        public void onSettleEnd(int top) {
+            postOnDraggingState(top);
+            refreshMotionState();
+        }
+    });
+    private int motionState = ViewDragHelper.STATE_IDLE;
+    private DrawerTransition activeTransition;
+    private DrawerTransition lastTransition;//排队的最后一次移动
+    private int lastMoveTop;
+    private long lastMoveNanos;
+    private float moveVelocity;//最近一次移动的速度，px/s
+    private boolean settleStarting;//切换回弹实现时 ViewDragHelper 会短暂回到 IDLE，忽略这次变化
+    private boolean layerPromotionEnabled = false;
+    private final DrawerLayerPromoter layerPromoter = new DrawerLayerPromoter();
+    private final NestedScrollingParentHelper nestedScrollingParentHelper = new NestedScrollingParentHelper(this);
+    private boolean nestedDragEnabled = false;
+    private boolean nestedTouchActive;//有子 View 正在进行触摸嵌套滚动，ViewDragHelper 不再捕获
+    private boolean nestedDragging;//本次嵌套滚动移动过抽屉
+    private boolean nestedFlingHandled;
+    private boolean nestedWantOpen;
+    private final int[] nestedScrollConsumed = new int[2];
 
     private boolean touchOnDrawerTop = false;//如果点击了抽屉
     private boolean canDrag = true;//可拖动
@@ -36,15 +139,40 @@ public class TertiaryDrawerLayout extends RelativeLayout {
     private boolean closeOnEdge = false; //是否可边缘侧滑关闭
     private boolean canFollowingScroll = true;
     private boolean isFollowingScroll = false;
-    private final Set<OnStatusChangeListener> statusChangeListenerSet = new HashSet<>();
+    private final StatusListenerRegistry statusListeners = new StatusListenerRegistry();
     private OnVisibilityChangeListener visibilityChangeListener;
+    private final ScrollableTargetIndex scrollableTargetIndex = new ScrollableTargetIndex();
+    private View scrollableTarget;//ACTION_DOWN 时解析出的滚动控件，整个手势内复用
+    private final DrawerHitTester hitTester = new DrawerHitTester();
+    private final ViewTreeObserver.OnScrollChangedListener originInvalidator = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            hitTester.invalidateOrigin();
+        }
+    };
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutOriginInvalidator = new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+            hitTester.invalidateOrigin();
+        }
+    };
 
     private int touchSlop;//认为滚动的最小距离
-    private int lastY;
-    private int lastY2;
-    private int lastX2;
+    private static final float DRAG_SENSITIVITY = 2.0f;//ViewDragHelper 的滑动阈值为拦截阈值的 1 / DRAG_SENSITIVITY
+    private ViewDragHelperCallBack dragCallback;
+    private int dragHelperSlop;//创建 dragHelper 时对应的拦截阈值
+    private AdaptiveThresholds adaptiveThresholds;
+    //自适应阈值统计用的本次手势信息
+    private int gestureStartDetent;
+    private int capturedFromDetent;
+    private boolean gestureCaptured;
+    private boolean gestureOnEdge;
+    private boolean gestureNearEdge;
+    private boolean gestureEdgeClosed;
+    private final PointerTracker pointerTracker = new PointerTracker();
     private int fillVisHeight;
     private int hoverVisHeight;
+    private final DrawerAnchors anchors = new DrawerAnchors();
 
     public TertiaryDrawerLayout(Context context) {
         this(context, null);
@@ -62,9 +190,8 @@ public class TertiaryDrawerLayout extends RelativeLayout {
     private void init(Context context, AttributeSet attrs, int defStyleAttr) {
         ViewConfiguration vc = ViewConfiguration.get(getContext());
         touchSlop = vc.getScaledTouchSlop();
-        dragHelper = ViewDragHelper.create(this, 2.0f, new ViewDragHelperCallBack());
-        //只能从viewGroup的下边缘拖动
-        dragHelper.setEdgeTrackingEnabled(ViewDragHelper.EDGE_BOTTOM);
+        dragCallback = new ViewDragHelperCallBack();
+        createDragHelper(touchSlop);
 
         if (attrs != null) {
             TypedArray a = getContext().obtainStyledAttributes(attrs, R.styleable.TertiaryDrawerLayout, defStyleAttr, 0);
@@ -79,6 +206,14 @@ public class TertiaryDrawerLayout extends RelativeLayout {
             } else {
                 drawerState = ViewState.FILL;
             }
+            int contentLayout = a.getResourceId(R.styleable.TertiaryDrawerLayout_content_layout, 0);
+            if (contentLayout != 0) {
+                lazyContent = new LazyDrawerContent(contentLayout, a.getInt(R.styleable.TertiaryDrawerLayout_content_inflate, CONTENT_INFLATE_ASYNC));
+            }
+            int scrimColor = a.getColor(R.styleable.TertiaryDrawerLayout_scrim_color, 0);
+            effects.setScrim(scrimColor, a.getFloat(R.styleable.TertiaryDrawerLayout_scrim_from, 0F), a.getFloat(R.styleable.TertiaryDrawerLayout_scrim_to, 1F));
+            parallaxBackgroundId = a.getResourceId(R.styleable.TertiaryDrawerLayout_parallax_background, 0);
+            parallaxFactor = a.getFloat(R.styleable.TertiaryDrawerLayout_parallax_factor, 0.5F);
             a.recycle();
         }
     }
@@ -86,27 +221,301 @@ public class TertiaryDrawerLayout extends RelativeLayout {
     @Override
     protected void onFinishInflate() {
         super.onFinishInflate();
-        drawerView = getChildAt(0);
-        post(new Runnable() {
-            @Override
-            public void run() {
-                resetDrawerViewLayout();
+        bindDrawer(getChildAt(0));
+        if (parallaxBackgroundId != 0) {
+            setParallaxBackground(findViewById(parallaxBackgroundId), parallaxFactor);
+        }
+        //第一次布局直接把抽屉放在 drawerState 对应的位置，不需要再回弹过去
+    }
+
+    private void bindDrawer(View drawer) {
+        drawerView = drawer;
+        scrollableTargetIndex.setRoot(drawer);
+        if (lazyContent != null && drawer != null) {
+            lazyContent.setContainer(drawer);
+            if (isRestingAboveClose()) {
+                //一开始就要展示内容，没有延迟的意义
+                lazyContent.inflateNow();
             }
-        });
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        DrawerAnchors anchors = getAnchors();
+        if (lazyContent != null && lazyContent.setPlaceholderHeight(anchors.getHeight(ViewState.CLOSE))) {
+            //占位高度取决于刚算出的停靠位置，抽屉按新的占位再测量一次
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+        arbiter.resolve(getMeasuredHeight());
     }
 
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-        if (dragHelper.getViewDragState() == STATE_DRAGGING) {
-            onReLayoutDrawView(getLeft(), drawerView.getTop(), getRight(), drawerView.getMeasuredHeight() + drawerView.getTop());
+        //抽屉内容的任何层级或尺寸变化都会走到这里
+        scrollableTargetIndex.invalidate();
+        hitTester.invalidateOrigin();
+        if (drawerView == null) {
+            super.onLayout(changed, left, top, right, bottom);
+            return;
+        }
+        int anchorGeneration = getAnchors().getGeneration();
+        boolean anchorsChanged = !drawerLaidOut || anchorGeneration != laidOutAnchorGeneration;
+        int drawerTop = drawerView.getTop();
+        boolean firstLayout = !drawerLaidOut;
+        boolean moving = isDrawerMoving();
+        if (moving) {
+            //拖动或回弹中保持当前位置，停靠位置的变化留到静止后的布局处理
+            anchorsChanged = false;
+        } else if (changed || anchorsChanged) {
+            drawerTop = getAnchors().getDetentTop(getDrawerDetent());
+        }
+        //测量尺寸变化后停靠位置重新露出：抽屉没有参与这次测量，留到下一次测量前恢复
+        boolean resumePending = drawerSuspended && drawerTop < bottom - top;
+        if (resumePending) {
+            post(resumeCheck);
+        }
+        //只有抽屉内容请求布局时不需要经过 RelativeLayout，它会把抽屉放回规则位置
+        boolean relativeLayoutPass = changed || isSiblingLayoutRequested();
+        if (relativeLayoutPass) {
+            super.onLayout(changed, left, top, right, bottom);
+        }
+        if (!drawerSuspended) {
+            onReLayoutDrawView(0, drawerTop, right - left, drawerView.getMeasuredHeight() + drawerTop, anchorsChanged || changed);
+        }
+        if (!moving && !resumePending) {
+            drawerLaidOut = true;
+            laidOutAnchorGeneration = anchorGeneration;
+            scheduleSuspendCheck();
+            if (firstLayout) {
+                //首次布局或恢复状态后，跟随偏移和抽屉位置在同一帧生效
+                followScroll.flush();
+                statusListeners.dispatchStateChange(drawerState, getDrawerDetent());
+            }
+        }
+        for (int i = 0; i < arbiter.size(); i++) {
+            layoutSecondaryDrawer(arbiter.get(i), right - left, changed, relativeLayoutPass);
+        }
+    }
+
+    /**
+     * 其他抽屉只在自身请求布局、停靠位置变化或经过 RelativeLayout 时重新放置
+     */
+    private void layoutSecondaryDrawer(DrawerArbiter.SecondaryDrawer drawer, int width, boolean changed, boolean relativeLayoutPass) {
+        View view = drawer.view;
+        int top = drawer.top;
+        boolean moving = drawer == capturedSecondary;
+        int generation = drawer.anchors.getGeneration();
+        if (!moving && (changed || !drawer.laidOut || generation != drawer.laidOutGeneration)) {
+            top = drawer.anchors.getDetentTop(drawer.detent);
+        }
+        if (relativeLayoutPass || view.isLayoutRequested() || top != view.getTop()) {
+            view.layout(0, top, width, top + view.getMeasuredHeight());
+        }
+        drawer.top = top;
+        if (!moving) {
+            drawer.laidOut = true;
+            drawer.laidOutGeneration = generation;
+        }
+    }
+
+    private boolean isSiblingLayoutRequested() {
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child != drawerView && child.isLayoutRequested() && arbiter.find(child) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isDrawerMoving() {
+        return dragHelper.getViewDragState() != ViewDragHelper.STATE_IDLE || nestedDragging || isDrawerSettling();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (gestureMetrics != null && getDisplay() != null) {
+            gestureMetrics.setRefreshRate(getDisplay().getRefreshRate());
+        }
+        hitTester.invalidateOrigin();
+        if (lazyContent != null && lazyContent.getMode() == CONTENT_INFLATE_ASYNC) {
+            lazyContent.inflateAsync();
+        }
+        getViewTreeObserver().addOnScrollChangedListener(originInvalidator);
+        getViewTreeObserver().addOnGlobalLayoutListener(layoutOriginInvalidator);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        frameSettleEngine.cancel();
+        followScroll.flush();
+        statusListeners.cancelPending();
+        if (gestureMetrics != null) {
+            gestureMetrics.cancel();
+        }
+        refreshMotionState();
+        getViewTreeObserver().removeOnScrollChangedListener(originInvalidator);
+        getViewTreeObserver().removeOnGlobalLayoutListener(layoutOriginInvalidator);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.drawerState = drawerState.ordinal();
+        state.drawerDetent = drawerDetent;
+        state.drawerDetentHeight = drawerDetentHeight;
+        state.followProgress = followScroll.getProgress();
+        return state;
+    }
+
+    /**
+     * 拖动或回弹中保存时，drawerState 已经是回弹的目标位置；恢复时不做动画，在下一次布局中直接放到该位置
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
             return;
         }
-        onReLayoutDrawView(getLeft(), drawerState.getTop(this), getRight(), drawerView.getMeasuredHeight() + drawerState.getTop(this));
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        cancelTransitions();
+        drawerState = ViewState.values()[savedState.drawerState];
+        drawerDetent = savedState.drawerDetent;
+        drawerDetentHeight = savedState.drawerDetentHeight;
+        followScroll.setProgress(savedState.followProgress);
+        dragHelper.abort();
+        if (settleScroller != null) {
+            settleScroller.abortAnimation();
+        }
+        frameSettleEngine.cancel();
+        //额外 detent 按保存的高度重新定位
+        anchors.invalidate();
+        if (isRestingAboveClose()) {
+            //恢复后直接展开，不会再经过 slideToDetent
+            ensureContent();
+        }
+        drawerLaidOut = false;
+        requestLayout();
+    }
+
+    /**
+     * 停靠位置是否高于 CLOSE，需要展示抽屉内容
+     */
+    private boolean isRestingAboveClose() {
+        if (drawerDetent < 0) {
+            return drawerState != ViewState.CLOSE;
+        }
+        if (getMeasuredHeight() == 0) {
+            //还没有测量，无法比较高度
+            return true;
+        }
+        return drawerDetentHeight > getAnchors().getHeight(ViewState.CLOSE);
+    }
+
+    static class SavedState extends AbsSavedState {
+
+        int drawerState;
+        int drawerDetent;
+        int drawerDetentHeight;
+        float followProgress;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        SavedState(Parcel source, ClassLoader loader) {
+            super(source, loader);
+            drawerState = source.readInt();
+            drawerDetent = source.readInt();
+            drawerDetentHeight = source.readInt();
+            followProgress = source.readFloat();
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            super.writeToParcel(dest, flags);
+            dest.writeInt(drawerState);
+            dest.writeInt(drawerDetent);
+            dest.writeInt(drawerDetentHeight);
+            dest.writeFloat(followProgress);
+        }
+
+        public static final Creator<SavedState> CREATOR = new ClassLoaderCreator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel source, ClassLoader loader) {
+                return new SavedState(source, loader);
+            }
+
+            @Override
+            public SavedState createFromParcel(Parcel source) {
+                return new SavedState(source, null);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        hitTester.invalidateOrigin();
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        //代码创建时不会走 onFinishInflate，第一个子 View 即为抽屉
+        if (drawerView == null && getChildAt(0) == child) {
+            bindDrawer(child);
+        }
+        scrollableTargetIndex.invalidate();
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        if (capturedSecondary != null && capturedSecondary.view == child) {
+            dragHelper.abort();
+            capturedSecondary = null;
+        }
+        arbiter.remove(child);
+        if (child == effects.getParallaxBackground()) {
+            setParallaxBackground(null, 0F);
+        }
+        scrollableTargetIndex.invalidate();
     }
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
-        View view = ViewExtUtil.findScrollableTarget(drawerView, ev.getRawX(), ev.getRawY());
+        int action = ev.getActionMasked();
+        trackPointers(ev);
+        if (action == MotionEvent.ACTION_DOWN) {
+            if (gestureMetrics != null) {
+                gestureMetrics.onTouchDown();
+            }
+            if (nestedDragEnabled) {
+                //由嵌套滚动决定抽屉和内容谁来消费，不需要查找滚动控件
+                canDrag = true;
+            } else if (drawerSuspended) {
+                scrollableTarget = null;
+            } else {
+                scrollableTarget = findScrollableTarget(ev);
+            }
+            touchOnDrawerTop = isUnderDrawerTop(pointerTracker.getX(), pointerTracker.getY());
+            if (adaptiveThresholds != null) {
+                startGestureStatistics();
+            }
+            syncDragSlop();
+        }
+        View view = scrollableTarget;
         if (view != null) {
             if (view instanceof NestedScrollView) {
                 canDrag = view.getScrollY() == 0;
@@ -115,10 +524,36 @@ public class TertiaryDrawerLayout extends RelativeLayout {
                 canDrag = !view.canScrollVertically(-1);
             }
         }
-        if (ev.getAction() == MotionEvent.ACTION_DOWN) {
-            touchOnDrawerTop = isUnderDrawerTop(ev.getRawX(), ev.getRawY());
+        boolean handled = super.dispatchTouchEvent(ev);
+        if (dragPrediction > 0F) {
+            predictDrag(ev, action);
+        }
+        if (gestureRecording != null) {
+            gestureRecording.appendEvent(ev, drawerView == null ? 0 : drawerView.getTop(), motionState);
+        }
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            scrollableTarget = null;
+            if (adaptiveThresholds != null) {
+                adaptiveThresholds.onGesture(pointerTracker.getDeltaX(), pointerTracker.getDeltaY(), ev.getEventTime() - ev.getDownTime(),
+                        touchOnDrawerTop, gestureCaptured, getDrawerDetent() != gestureStartDetent,
+                        gestureOnEdge, gestureNearEdge, gestureEdgeClosed);
+            }
+            if (gestureMetrics != null && gestureMetrics.onTouchUp()) {
+                gestureMetrics.finish(drawerState, getDrawerDetent());
+            }
         }
-        return super.dispatchTouchEvent(ev);
+        return handled;
+    }
+
+    /**
+     * 事件坐标是相对本布局的，换算到抽屉坐标系后交给索引解析
+     */
+    private View findScrollableTarget(MotionEvent ev) {
+        if (drawerView == null)
+            return null;
+        float x = ev.getX() + getScrollX() - drawerView.getLeft() - drawerView.getTranslationX();
+        float y = ev.getY() + getScrollY() - drawerView.getTop() - drawerView.getTranslationY();
+        return scrollableTargetIndex.find(x, y);
     }
 
     @Override
@@ -127,41 +562,24 @@ public class TertiaryDrawerLayout extends RelativeLayout {
             return super.onInterceptTouchEvent(ev);
         }
         boolean interceptTap = true;
+        boolean move = ev.getActionMasked() == MotionEvent.ACTION_MOVE;
         if (touchOnDrawerTop) {
-            interceptTap = false;
-            switch (ev.getAction()) {
-                case MotionEvent.ACTION_MOVE: {
-                    final float yOff = Math.abs(lastY - ev.getRawY());
-                    if (yOff > touchSlop) {
-                        // 只有手指滑动距离大于阈值时，才会开始拦截
-                        // Start scrolling!
-                        interceptTap = true;
-                    }
-                    break;
-                }
-                case MotionEvent.ACTION_DOWN:
-                    lastY = (int) ev.getRawY();
-                    break;
-            }
-        }
-        if (closeOnEdge) {
-            switch (ev.getActionMasked()) {
-                case MotionEvent.ACTION_MOVE: {
-                    final float xOff = Math.abs(lastX2 - ev.getRawX());
-                    final float yOff = Math.abs(lastY2 - ev.getRawY());
-                    if (isTouchStartOnEdge((float) lastX2) && xOff > touchSlop / 2F && yOff < xOff) {
-                        changeDrawerState(ViewState.CLOSE);
-                        return true;
-                    }
-                    break;
-                }
-                case MotionEvent.ACTION_DOWN:
-                    lastX2 = (int) ev.getRawX();
-                    lastY2 = (int) ev.getRawY();
-                    break;
+            // 只有活动触点的累计位移大于阈值时，才会开始拦截
+            interceptTap = move && Math.abs(pointerTracker.getDeltaY()) > getInterceptSlop();
+        }
+        if (closeOnEdge && move) {
+            final float xOff = Math.abs(pointerTracker.getDeltaX());
+            final float yOff = Math.abs(pointerTracker.getDeltaY());
+            if (isTouchStartOnEdge(pointerTracker.getStartX()) && xOff > getInterceptSlop() / 2F && yOff < xOff) {
+                gestureEdgeClosed = true;
+                changeDrawerState(ViewState.CLOSE);
+                return true;
             }
         }
         boolean interceptForDrag = dragHelper.shouldInterceptTouchEvent(ev);
+        if (DrawerDiagnostics.ENABLED) {
+            getDiagnostics().recordIntercept(ev.getActionMasked(), interceptTap, interceptForDrag);
+        }
         return interceptTap && interceptForDrag;
     }
 
@@ -172,13 +590,29 @@ public class TertiaryDrawerLayout extends RelativeLayout {
         if (touchOnDrawerTop) {
             return true;
         }
-        return canCapture(ViewExtUtil.isUnder(drawerView, ev));
+        return canCapture(isUnderDrawer(pointerTracker.getX(), pointerTracker.getY()));
+    }
+
+    /**
+     * 非第一个触点没有 raw 坐标，统一用缓存的宿主原点加事件坐标
+     */
+    private void trackPointers(MotionEvent ev) {
+        DrawerHitTester tester = drawerView == null ? hitTester : syncHitTester();
+        pointerTracker.onTouchEvent(ev, tester.getOriginX(), tester.getOriginY());
     }
 
     @Override
     public void computeScroll() {
         if (dragHelper.continueSettling(true)) {
             invalidate();
+        } else if (settleScroller != null && !settleScroller.isFinished() && settleScroller.computeScrollOffset()) {
+            int top = settleScroller.getCurrY();
+            drawerView.offsetTopAndBottom(top - drawerView.getTop());
+            postOnDraggingState(top);
+            invalidate();
+            if (settleScroller.isFinished()) {
+                refreshMotionState();
+            }
         }
     }
 
@@ -186,21 +620,291 @@ public class TertiaryDrawerLayout extends RelativeLayout {
     public void changeDrawerState(ViewState viewState) {
         if (isFollowingScroll)
             return;//如果正在跟随，不能直接打开
+        cancelTransitions();
         this.drawerState = viewState;
-        dragHelper.smoothSlideViewTo(drawerView, drawerView.getLeft(), viewState.getTop(this));
-        invalidate();
-        for (OnStatusChangeListener changeListener : statusChangeListenerSet) {
-            if (changeListener != null) {
-                changeListener.onStateChange(viewState);
+        this.drawerDetent = -1;
+        slideToDetent(getAnchors().indexOf(viewState), 0F);
+    }
+
+    /**
+     * 移动到指定 detent，下标按展开程度排列，0 为最展开
+     *
+     * @param detent 0 ~ {@link #getDetentCount()} - 1
+     * @throws IllegalArgumentException detent 超出范围
+     */
+    public void changeDrawerDetent(int detent) {
+        checkDetent(detent);
+        if (isFollowingScroll)
+            return;//如果正在跟随，不能直接打开
+        cancelTransitions();
+        changeDrawerDetent(detent, 0F);
+    }
+
+    /**
+     * 移动到指定 detent，返回可以取消、监听停稳、接着排队的 {@link DrawerTransition}
+     * 正在回弹时从当前位置和速度接着移动，进行中或排队的其他移动会被取消；跟随滚动时直接以取消结束
+     */
+    public DrawerTransition animateDrawer(int detent) {
+        return animateDrawer(detent, -1, null);
+    }
+
+    public DrawerTransition animateDrawer(ViewState viewState) {
+        return animateDrawer(getAnchors().indexOf(viewState));
+    }
+
+    /**
+     * @param duration     时长，毫秒，-1 表示按距离和当前速度计算
+     * @param interpolator 为空时使用默认的减速曲线
+     */
+    public DrawerTransition animateDrawer(int detent, int duration, Interpolator interpolator) {
+        cancelTransitions();
+        DrawerTransition transition = new DrawerTransition(this, detent, duration, interpolator);
+        lastTransition = transition;
+        startTransition(transition);
+        return transition;
+    }
+
+    /**
+     * 排在已有的移动之后，没有进行中的移动时立即开始
+     */
+    public DrawerTransition queueDrawerTransition(int detent) {
+        DrawerTransition last = lastTransition;
+        if (last == null || last.isDone()) {
+            return animateDrawer(detent);
+        }
+        return last.then(detent);
+    }
+
+    void chainTransition(DrawerTransition previous, DrawerTransition next) {
+        if (previous.isCancelled()) {
+            next.finish(false);
+        } else if (previous.isSettled()) {
+            //前一次已经停稳，立即开始
+            cancelTransitions();
+            lastTransition = next;
+            startTransition(next);
+        } else if (lastTransition == previous) {
+            lastTransition = next;
+        }
+    }
+
+    void cancelTransition(DrawerTransition transition) {
+        if (transition.isDone()) {
+            return;
+        }
+        if (transition != activeTransition) {
+            //还在排队，前面的移动不受影响
+            transition.finish(false);
+            lastTransition = findLastTransition(activeTransition);
+            return;
+        }
+        cancelTransitions();
+        if (motionState == ViewDragHelper.STATE_SETTLING && drawerView != null) {
+            changeDrawerDetent(getAnchors().indexOfHeight(getMeasuredHeight() - drawerView.getTop()), estimateDrawerVelocity());
+        }
+    }
+
+    private DrawerTransition findLastTransition(DrawerTransition transition) {
+        DrawerTransition last = transition;
+        while (last != null && last.getNext() != null && !last.getNext().isDone()) {
+            last = last.getNext();
+        }
+        return last;
+    }
+
+    private void cancelTransitions() {
+        DrawerTransition transition = activeTransition;
+        activeTransition = null;
+        lastTransition = null;
+        if (transition != null) {
+            transition.finish(false);
+        }
+    }
+
+    private void startTransition(DrawerTransition transition) {
+        if (transition.isDone()) {
+            return;
+        }
+        if (isFollowingScroll || drawerView == null) {
+            //跟随时不能直接打开
+            transition.finish(false);
+            if (lastTransition == transition) {
+                lastTransition = null;
+            }
+            return;
+        }
+        activeTransition = transition;
+        transition.markRunning();
+        int detent = Math.max(0, Math.min(transition.getTargetDetent(), getAnchors().getDetentCount() - 1));
+        setDrawerDetent(detent);
+        if (!drawerLaidOut) {
+            //还没有布局，第一次布局直接放到目标位置
+            requestLayout();
+            settleActiveTransition();
+            return;
+        }
+        slideToDetent(detent, estimateDrawerVelocity(), transition);
+        if (activeTransition == transition) {
+            if (motionState == ViewDragHelper.STATE_IDLE) {
+                //已经在目标位置
+                settleActiveTransition();
+            } else {
+                transition.dispatchSettlingStarted();
             }
         }
     }
 
+    private void settleActiveTransition() {
+        DrawerTransition transition = activeTransition;
+        activeTransition = null;
+        DrawerTransition next = transition.finish(true);
+        if (activeTransition != null) {
+            //回调中开始了新的移动
+            if (next != null) {
+                next.finish(false);
+            }
+        } else if (next != null) {
+            startTransition(next);
+        } else if (lastTransition == transition) {
+            lastTransition = null;
+        }
+    }
 
-    public void addOnStatusChangeListener(OnStatusChangeListener onStatusChangeListener) {
-        if (statusChangeListenerSet.contains(onStatusChangeListener))
+    /**
+     * 移动状态变化时更新进行中的移动：被拖动打断时取消，静止时按是否到达目标结束
+     */
+    private void updateActiveTransition(int state) {
+        DrawerTransition transition = activeTransition;
+        if (transition == null) {
             return;
-        statusChangeListenerSet.add(onStatusChangeListener);
+        }
+        if (state == ViewDragHelper.STATE_SETTLING) {
+            transition.dispatchSettlingStarted();
+        } else if (state == ViewDragHelper.STATE_IDLE && drawerView != null
+                && drawerView.getTop() == getAnchors().getDetentTop(getDrawerDetent())) {
+            settleActiveTransition();
+        } else {
+            cancelTransitions();
+        }
+    }
+
+    private void recordMove(int top) {
+        long now = System.nanoTime();
+        long elapsed = now - lastMoveNanos;
+        if (elapsed >= 1000000L) {
+            moveVelocity = (top - lastMoveTop) * 1E9F / elapsed;
+            lastMoveTop = top;
+            lastMoveNanos = now;
+        }
+    }
+
+    /**
+     * 回弹中抽屉的当前速度，用于打断后衔接
+     */
+    private float estimateDrawerVelocity() {
+        if (motionState != ViewDragHelper.STATE_SETTLING || System.nanoTime() - lastMoveNanos > 50000000L) {
+            return 0F;
+        }
+        return moveVelocity;
+    }
+
+    private void changeDrawerDetent(int detent, float yvel) {
+        if (isFollowingScroll)
+            return;//如果正在跟随，不能直接打开
+        setDrawerDetent(detent);
+        slideToDetent(detent, yvel);
+    }
+
+    private void setDrawerDetent(int detent) {
+        DrawerAnchors anchors = getAnchors();
+        ViewState preset = anchors.presetAt(detent);
+        if (preset != null) {
+            this.drawerState = preset;
+            this.drawerDetent = -1;
+        } else {
+            this.drawerState = anchors.nearestPreset(detent);
+            this.drawerDetent = detent;
+            this.drawerDetentHeight = anchors.getDetentHeight(detent);
+        }
+    }
+
+    /**
+     * @param yvel 松手速度，开启物理回弹时用来衔接回弹的起始速度
+     */
+    private void slideToDetent(int detent, float yvel) {
+        slideToDetent(detent, yvel, null);
+    }
+
+    /**
+     * @param transition 不为空时按它的时长和插值器逐帧移动
+     */
+    private void slideToDetent(int detent, float yvel, DrawerTransition transition) {
+        int targetTop = getAnchors().getDetentTop(detent);
+        if (targetTop < getAnchors().getTop(ViewState.CLOSE)) {
+            ensureContent();
+        }
+        if (DrawerDiagnostics.ENABLED) {
+            getDiagnostics().recordState(drawerState, detent, targetTop);
+        }
+        if (gestureRecording != null) {
+            gestureRecording.appendTransition(drawerState, detent);
+        }
+        //先上报目标状态，开始回弹时才回调 onSettlingStarted
+        statusListeners.dispatchStateChange(drawerState, detent);
+        if (transition != null) {
+            if (targetTop < getHeight()) {
+                resumeDrawer();
+            }
+            int duration = transition.getDuration() >= 0 ? transition.getDuration() : computeSettleDuration(targetTop, yvel);
+            startFrameSettle(targetTop, duration, transition.getInterpolator());
+        } else {
+            settleTo(targetTop, yvel);
+        }
+    }
+
+    private void settleTo(int targetTop, float yvel) {
+        if (targetTop < getHeight()) {
+            resumeDrawer();
+        }
+        if (frameSettleEnabled) {
+            //逐帧移动抽屉，不需要重绘整个布局
+            startFrameSettle(targetTop, yvel);
+        } else {
+            if (releasePhysics != null) {
+                startPhysicsSettle(targetTop, yvel);
+            } else if (capturedSecondary != null) {
+                //ViewDragHelper 正在移动其他抽屉，主抽屉改为逐帧回弹，两个抽屉互不打断
+                startFrameSettle(targetTop, yvel);
+            } else {
+                frameSettleEngine.cancel();
+                if (!dragHelper.smoothSlideViewTo(drawerView, drawerView.getLeft(), targetTop)) {
+                    //已经在目标位置，取消的逐帧回弹不会再更新状态
+                    refreshMotionState();
+                }
+            }
+            invalidate();
+        }
+    }
+
+
+    public void addOnStatusChangeListener(OnStatusChangeListener onStatusChangeListener) {
+        statusListeners.add(onStatusChangeListener);
+    }
+
+    public void removeOnStatusChangeListener(OnStatusChangeListener onStatusChangeListener) {
+        statusListeners.remove(onStatusChangeListener);
+    }
+
+    /**
+     * 合并位置回调：{@link OnStatusChangeListener#onDragging} 与 {@link OnStatusChangeListener#onDragProgress}
+     * 每个 vsync 最多分发一次，携带该帧最新的位置
+     */
+    public void setCoalesceDraggingCallbacks(boolean coalesce) {
+        statusListeners.setCoalescing(coalesce);
+    }
+
+    public boolean isCoalesceDraggingCallbacks() {
+        return statusListeners.isCoalescing();
     }
 
     @Override
@@ -227,26 +931,83 @@ public class TertiaryDrawerLayout extends RelativeLayout {
      * @return
      */
     private boolean canCapture(boolean isHandleDrawer) {
-        if (!enableDrag)
+        if (!enableDrag || nestedTouchActive)
             return false;
         //点击了上层，不用管canDrag
         if (touchOnDrawerTop) {
             return isHandleDrawer;
         }
         boolean canCapture = canDrag && isHandleDrawer;
-        Log.i(TAG, "canCapture：" + canCapture + "_canDrag：" + canDrag + "isHandleDrawer：" + isHandleDrawer);
+        if (DrawerDiagnostics.ENABLED) {
+            getDiagnostics().recordCapture(canCapture, canDrag, isHandleDrawer);
+        }
         return canCapture;
     }
 
+    /**
+     * 本实例的诊断记录，{@link DrawerDiagnostics#ENABLED} 打开的构建中才会写入
+     */
+    public DrawerDiagnostics getDiagnostics() {
+        if (diagnostics == null) {
+            diagnostics = new DrawerDiagnostics();
+        }
+        return diagnostics;
+    }
+
+    public String dumpDiagnostics() {
+        return diagnostics == null ? "" : diagnostics.dump();
+    }
+
+    /**
+     * 开始录制触摸事件和状态变化，之前未停止的录制会被丢弃
+     */
+    public GestureRecording startGestureRecording() {
+        gestureRecording = new GestureRecording();
+        gestureRecording.setSize(getWidth(), getHeight());
+        return gestureRecording;
+    }
+
+    /**
+     * @return 本次录制，没有在录制时为 null
+     */
+    public GestureRecording stopGestureRecording() {
+        GestureRecording recording = gestureRecording;
+        gestureRecording = null;
+        return recording;
+    }
+
+    /**
+     * 开启手势耗时统计，每次手势结束（抽屉回到静止）回调一次 {@link GestureSummary}，传 null 关闭
+     */
+    public void setOnGestureMetricsListener(OnGestureMetricsListener onGestureMetricsListener) {
+        if (gestureMetrics != null) {
+            gestureMetrics.cancel();
+        }
+        if (onGestureMetricsListener == null) {
+            gestureMetrics = null;
+            return;
+        }
+        gestureMetrics = new GestureMetrics(onGestureMetricsListener);
+        if (getDisplay() != null) {
+            gestureMetrics.setRefreshRate(getDisplay().getRefreshRate());
+        }
+    }
+
     private class ViewDragHelperCallBack extends ViewDragHelper.Callback {
 
-        private long startTime;
         private boolean isWantOpen = true;
 
         //确定当前子view是否可拖动
         @Override
         public boolean tryCaptureView(@NonNull View child, int pointerId) {
-            startTime = System.currentTimeMillis();
+            if (child != drawerView && arbiter.find(child) != null) {
+                return enableDrag && !nestedTouchActive && !isFollowingScroll;
+            }
+            if (child == drawerView && dragHelper.getViewDragState() == ViewDragHelper.STATE_DRAGGING
+                    && dragHelper.getCapturedView() == drawerView) {
+                //拖动中换手指，直接交给新触点，不松手回弹
+                return true;
+            }
             return canCapture(child == drawerView) && !isFollowingScroll;
         }
 
@@ -275,12 +1036,49 @@ public class TertiaryDrawerLayout extends RelativeLayout {
         @Override
         public int clampViewPositionVertical(@NonNull View child, int top, int dy) {
             isWantOpen = dy < 0; //向上滑
-            return Math.min(Math.max(top, 0), ViewState.CLOSE.getTop(TertiaryDrawerLayout.this));
+            DrawerArbiter.SecondaryDrawer secondary = capturedSecondary;
+            int maxTop = secondary != null ? secondary.anchors.getMaxTop() : getAnchors().getMaxTop();
+            return Math.min(Math.max(top, 0), maxTop);
+        }
+
+        @Override
+        public void onViewDragStateChanged(int state) {
+            if (capturedSecondary != null && state == ViewDragHelper.STATE_IDLE) {
+                capturedSecondary.top = capturedSecondary.view.getTop();
+                capturedSecondary = null;
+            }
+            refreshMotionState();
+        }
+
+        @Override
+        public void onViewCaptured(@NonNull View capturedChild, int activePointerId) {
+            if (dragHelper.getViewDragState() == ViewDragHelper.STATE_SETTLING && getSharedSettleView() != capturedChild) {
+                //改为拖动另一个抽屉，ViewDragHelper 不会再移动正在回弹的抽屉
+                snapToSettleTarget(capturedSecondary);
+            }
+            capturedSecondary = capturedChild == drawerView ? null : arbiter.find(capturedChild);
+            if (capturedSecondary != null) {
+                return;
+            }
+            gestureCaptured = true;
+            capturedFromDetent = getDrawerDetent();
+            //重新按住时打断正在进行的回弹
+            if (settleScroller != null) {
+                settleScroller.abortAnimation();
+            }
+            frameSettleEngine.cancel();
         }
 
         @Override
         public void onViewPositionChanged(@NonNull View changedView, int left, int top, int dx, int dy) {
             super.onViewPositionChanged(changedView, left, top, dx, dy);
+            if (capturedSecondary != null) {
+                capturedSecondary.top = top;
+                if (drawerDetentChangeListener != null) {
+                    drawerDetentChangeListener.onDrawerDragging(changedView, top);
+                }
+                return;
+            }
             //            int screenHeight = getMeasuredHeight();
             //            int offset = screenHeight - top;
             postOnDraggingState(top);
@@ -296,34 +1094,32 @@ public class TertiaryDrawerLayout extends RelativeLayout {
          */
         @Override
         public void onViewReleased(@NonNull View releasedChild, float xvel, float yvel) {
-            // 快速拖动逻辑
-            long endTime = System.currentTimeMillis();
-            // 拖动后定位逻辑
-            int childTop = releasedChild.getTop();
-            setClosestStateIfBetween(ViewState.FILL, ViewState.HOVER, childTop);
-            setClosestStateIfBetween(ViewState.HOVER, ViewState.CLOSE, childTop);
-        }
-
-        private void setClosestStateIfBetween(ViewState beginState, ViewState endState, int curTop) {
-            int beginTop = beginState.getTop(TertiaryDrawerLayout.this), endTop = endState.getTop(TertiaryDrawerLayout.this);
-            if (curTop >= beginTop && curTop <= endTop)
-                if (iContentHeightProxy != null) {
-                    if (beginState == ViewState.FILL) {
-                        if (isWantOpen) {
-                            changeDrawerState(curTop < endTop - iContentHeightProxy.getTopExpandHeight() ? beginState : endState);
-                        } else {
-                            changeDrawerState(curTop < beginTop + iContentHeightProxy.getTopExpandHeight() ? beginState : endState);
-                        }
-                    } else if (endState == ViewState.CLOSE) {
-                        if (isWantOpen) {
-                            changeDrawerState(curTop < endTop - iContentHeightProxy.getBottomCollapseHeight() ? beginState : endState);
-                        } else {
-                            changeDrawerState(curTop < beginTop + iContentHeightProxy.getBottomCollapseHeight() ? beginState : endState);
-                        }
-                    }
-                } else {
-                    changeDrawerState(curTop < (beginTop + endTop) / 2 ? beginState : endState);
-                }
+            DrawerArbiter.SecondaryDrawer secondary = capturedSecondary;
+            if (secondary != null) {
+                float projectedTop = releasedChild.getTop() + yvel * releaseProjection;
+                setSecondaryDetent(secondary, secondary.anchors.snap(projectedTop, isWantOpen));
+                dragHelper.settleCapturedViewAt(releasedChild.getLeft(), secondary.anchors.getDetentTop(secondary.detent));
+                invalidate();
+                return;
+            }
+            // 拖动后定位逻辑：按速度投影松手位置，再吸附到所在区间的一端
+            float thresholdScale = adaptiveThresholds != null ? adaptiveThresholds.getSnapThresholdScale() : 1F;
+            int detent;
+            boolean isOpening;
+            if (releasePhysics != null) {
+                float projection = releasePhysics.projectDistance(yvel);
+                isOpening = projection != 0F ? yvel < 0 : isWantOpen;
+                detent = getAnchors().snap(releasedChild.getTop() + projection, isOpening, thresholdScale);
+                changeDrawerDetent(detent, yvel);
+            } else {
+                float projectedTop = releasedChild.getTop() + yvel * releaseProjection;
+                isOpening = isWantOpen;
+                detent = getAnchors().snap(projectedTop, isWantOpen, thresholdScale);
+                changeDrawerDetent(detent);
+            }
+            if (adaptiveThresholds != null) {
+                adaptiveThresholds.onRelease(SystemClock.uptimeMillis(), capturedFromDetent, detent, isOpening);
+            }
         }
 
         /**
@@ -332,7 +1128,7 @@ public class TertiaryDrawerLayout extends RelativeLayout {
          */
         @Override
         public int getViewVerticalDragRange(@NonNull View child) {
-            if (child == drawerView) {
+            if (child == drawerView || arbiter.find(child) != null) {
                 return 1;
             } else {
                 return 0;
@@ -398,28 +1194,33 @@ public class TertiaryDrawerLayout extends RelativeLayout {
     }
 
     /**
-     * 跟随的时候，抽屉一定是在底部的
-     * 如果不在底部,却调用了scroll，drawerView.getTop() != maxY成立
-     * 这种情况有可能是在跟随的时候，调用了弹起，需要将滚动初始化
+     * 跟随滚动，只平移抽屉，同一帧内多次调用只应用最后一次
+     * 跟随的时候，抽屉一定是在底部的，如果不在底部（跟随时调用了弹起），偏移为 0，回到底部后恢复
      *
-     * @param toY
+     * @param toY 0 ~ 跟随范围，超出时取边界
      */
     public void scroll(int toY) {
-        int maxY = drawerView.getHeight() - ViewState.FILL.getTop(TertiaryDrawerLayout.this);
-        if (toY > maxY) {
-            toY = maxY;
-        }
-        if (drawerView.getTop() != maxY) {
-            toY = 0;
-        }
-        this.scrollToY = toY;
-        scrollTo(0, scrollToY);
+        followScroll.scrollTo(toY);
+    }
+
+    /**
+     * 按进度设置跟随偏移
+     *
+     * @param progress 0 ~ 1
+     */
+    public void setFollowProgress(float progress) {
+        followScroll.setProgress(progress);
     }
 
-    private int scrollToY;
+    public float getFollowProgress() {
+        return followScroll.getProgress();
+    }
 
+    /**
+     * 当前的跟随偏移，包括还没到下一帧生效的更新
+     */
     public int getDrawerScrollY() {
-        return scrollToY;
+        return followScroll.getOffset();
     }
 
 
@@ -427,44 +1228,73 @@ public class TertiaryDrawerLayout extends RelativeLayout {
         changeDrawerState(drawerState);
     }
 
-    private void onReLayoutDrawView(int left, int top, int right, int bottom) {
-        scroll(0);
+    /**
+     * @param geometryChanged 停靠位置或布局尺寸变化，需要重新校验跟随滚动的偏移
+     */
+    private void onReLayoutDrawView(int left, int top, int right, int bottom, boolean geometryChanged) {
         drawerView.layout(left, top, right, bottom);
+        if (geometryChanged) {
+            followScroll.invalidateRange();
+        }
     }
 
     private void postOnDraggingState(int state) {
-        for (OnStatusChangeListener changeListener : statusChangeListenerSet) {
-            if (changeListener != null) {
-                changeListener.onDragging(state);
-            }
+        recordMove(state);
+        invalidateEffects();
+        if (gestureMetrics != null) {
+            gestureMetrics.onDrawerMoved();
+        }
+        if (statusListeners.isEmpty()) {
+            return;
         }
+        statusListeners.dispatchPosition(state, getAnchors().progressOf(state));
     }
 
     private void postMoving(int top) {
-        for (OnStatusChangeListener changeListener : statusChangeListenerSet) {
-            if (changeListener != null) {
-                changeListener.onMoving(top);
-            }
-        }
+        statusListeners.dispatchMoving(top);
+    }
+
+
+    /**
+     * 同步抽屉当前的屏幕位置，之后的命中测试都是纯数值比较
+     */
+    private DrawerHitTester syncHitTester() {
+        hitTester.update(this, drawerView);
+        return hitTester;
+    }
+
+    private boolean isUnderDrawer(float rawX, float rawY) {
+        if (drawerView == null || drawerSuspended)
+            return false;
+        return syncHitTester().isUnderDrawer(rawX, rawY);
     }
 
+    public boolean isUnderDrawerTop(float rawX, float rawY) {
+        if (drawerView == null || drawerSuspended)
+            return false;
+        return syncHitTester().isUnderDrawerTop(rawX, rawY, getAnchors().getDetentHeight(getDrawerDetent()));
+    }
 
+    /**
+     * @deprecated 使用 {@link #isUnderDrawerTop(float, float)}，避免装箱
+     */
+    @Deprecated
     public boolean isUnderDrawerTop(Float rawX, Float rawY) {
+        return isUnderDrawerTop(rawX.floatValue(), rawY.floatValue());
+    }
+
+    public boolean isUnderDrawerBlank(float rawX, float rawY) {
         if (drawerView == null)
             return false;
-        int[] xy = new int[2];
-        drawerView.getLocationOnScreen(xy);
-        boolean isUnderDrawerTop = rawX >= xy[0] && rawX <= xy[0] + drawerView.getWidth() && rawY >= xy[1] && rawY <= xy[1] + drawerState.getHeight(TertiaryDrawerLayout.this);
-        return isUnderDrawerTop;
+        return syncHitTester().isUnderDrawerBlank(rawX, rawY, ViewState.FILL.getTop(this));
     }
 
+    /**
+     * @deprecated 使用 {@link #isUnderDrawerBlank(float, float)}，避免装箱
+     */
+    @Deprecated
     public boolean isUnderDrawerBlank(Float rawX, Float rawY) {
-        if (drawerView == null)
-            return false;
-        int[] xy = new int[2];
-        drawerView.getLocationOnScreen(xy);
-        boolean isUnderDrawerTop = rawX >= xy[0] && rawX <= xy[0] + drawerView.getWidth() && rawY >= ViewState.FILL.getTop(this) && rawY <= xy[1];
-        return isUnderDrawerTop;
+        return isUnderDrawerBlank(rawX.floatValue(), rawY.floatValue());
     }
 
     private final int edgeWidth = dp2px(50F); //边缘触发宽度
@@ -480,16 +1310,78 @@ public class TertiaryDrawerLayout extends RelativeLayout {
      * @param rawX 开始时的 X 坐标
      * @return true or false
      */
-    private boolean isTouchStartOnEdge(Float rawX) {
+    private boolean isTouchStartOnEdge(float rawX) {
         if (drawerView == null)
             return false;
-        int[] xy = new int[2];
-        drawerView.getLocationOnScreen(xy);
-        return (rawX <= edgeWidth && rawX >= xy[0]) || (rawX >= (xy[0] + drawerView.getWidth() - edgeWidth) && rawX <= (xy[0] + drawerView.getWidth()));
+        return syncHitTester().isOnEdge(rawX, getEdgeWidth());
+    }
+
+    private int getEdgeWidth() {
+        return adaptiveThresholds != null ? adaptiveThresholds.getEdgeWidth() : edgeWidth;
+    }
+
+    private int getInterceptSlop() {
+        return adaptiveThresholds != null ? adaptiveThresholds.getTouchSlop() : touchSlop;
+    }
+
+    /**
+     * ViewDragHelper 的滑动阈值创建后不能修改，自适应阈值变化后在下一次按下、没有抽屉在移动时重新创建
+     */
+    private void syncDragSlop() {
+        int slop = getInterceptSlop();
+        if (slop != dragHelperSlop && dragHelper.getViewDragState() == ViewDragHelper.STATE_IDLE) {
+            createDragHelper(slop);
+        }
+    }
+
+    private void createDragHelper(int slop) {
+        //ViewDragHelper 的阈值为 ViewConfiguration 的阈值除以 sensitivity
+        float sensitivity = touchSlop > 0 ? DRAG_SENSITIVITY * touchSlop / Math.max(slop, 1) : DRAG_SENSITIVITY;
+        dragHelper = ViewDragHelper.create(this, sensitivity, dragCallback);
+        //只能从viewGroup的下边缘拖动
+        dragHelper.setEdgeTrackingEnabled(ViewDragHelper.EDGE_BOTTOM);
+        dragHelperSlop = slop;
+    }
+
+    /**
+     * ViewDragHelper 实际使用的滑动阈值
+     */
+    int getDragSlop() {
+        return dragHelper.getTouchSlop();
+    }
+
+    private void startGestureStatistics() {
+        gestureStartDetent = getDrawerDetent();
+        gestureCaptured = false;
+        gestureEdgeClosed = false;
+        gestureOnEdge = false;
+        gestureNearEdge = false;
+        if (closeOnEdge && drawerView != null) {
+            float startX = pointerTracker.getStartX();
+            gestureOnEdge = isTouchStartOnEdge(startX);
+            gestureNearEdge = !gestureOnEdge && syncHitTester().isOnEdge(startX, getEdgeWidth() * 2);
+        }
+    }
+
+    /**
+     * 按手势统计自适应调整滑动阈值、边缘宽度和吸附阈值，传空时恢复固定阈值
+     * 同一设备上的多个布局可以共用一个实例，通过它查看当前的阈值和统计
+     */
+    public void setAdaptiveThresholds(AdaptiveThresholds adaptiveThresholds) {
+        this.adaptiveThresholds = adaptiveThresholds;
+        if (adaptiveThresholds != null) {
+            adaptiveThresholds.setBase(touchSlop, edgeWidth);
+        }
+        syncDragSlop();
+    }
+
+    public AdaptiveThresholds getAdaptiveThresholds() {
+        return adaptiveThresholds;
     }
 
     /**
-     * 高度动态配置
+     * 高度动态配置，在主线程测量时同步调用
+     * 计算耗时的高度可以改用 {@link #publishAnchors(AnchorHeights)} 在后台计算后发布
      */
     public interface IContentHeightProxy {
         int getHoverHeight();
@@ -503,6 +1395,55 @@ public class TertiaryDrawerLayout extends RelativeLayout {
         int getBottomCollapseHeight();
     }
 
+    /**
+     * {@link #addDrawer(View, int...)} 添加的抽屉的状态
+     */
+    public interface OnDrawerDetentChangeListener {
+
+        default void onDrawerDetentChange(View drawer, int detent) {
+        }
+
+        default void onDrawerDragging(View drawer, int top) {
+        }
+    }
+
+    public interface OnDrawerLifecycleListener {
+
+        default void onDrawerActive() {
+        }
+
+        default void onDrawerInactive() {
+        }
+    }
+
+    public interface OnContentReadyListener {
+        void onContentReady(View content);
+    }
+
+    public interface OnGestureMetricsListener {
+        /**
+         * @param summary 复用的实例，只在回调期间有效
+         */
+        void onGestureSummary(GestureSummary summary);
+    }
+
+    /**
+     * 硬件层提升的开销统计
+     */
+    public interface OnLayerPromotionListener {
+
+        default void onLayerPromoted() {
+        }
+
+        /**
+         * @param promotedNanos        层存在的时长
+         * @param contentInvalidations 期间抽屉内容刷新的次数，每次都会重绘整个层
+         * @param fellBack             是否因为内容频繁刷新而提前退回普通绘制
+         */
+        default void onLayerReleased(long promotedNanos, int contentInvalidations, boolean fellBack) {
+        }
+    }
+
     public interface OnStatusChangeListener {
 
         default void onMoving() {
@@ -515,22 +1456,902 @@ public class TertiaryDrawerLayout extends RelativeLayout {
         default void onDragging(int offset) {
         }
 
+        /**
+         * 与 onDragging 同时回调
+         *
+         * @param offset   抽屉 top
+         * @param progress 0 为最收起的 detent，1 为最展开的 detent
+         */
+        default void onDragProgress(int offset, float progress) {
+        }
+
         default void onStateChange(ViewState viewState) {
         }
 
+        /**
+         * 停靠的 detent 变化，额外 detent 的 {@link #onStateChange} 上报最接近的预设状态
+         */
+        default void onDetentChange(int detent) {
+        }
+
+        /**
+         * 抽屉开始回弹，{@link #onStateChange} 在此之前已经上报目标状态
+         */
+        default void onSettlingStarted(ViewState viewState, int detent) {
+        }
+
+        /**
+         * 拖动或回弹结束，抽屉静止
+         */
+        default void onSettled(ViewState viewState, int detent) {
+        }
+
         default void onScrollOnBlank() {
         }
     }
 
 
     private IContentHeightProxy iContentHeightProxy;
+    private AnchorHeights anchorHeights;//已发布的高度，优先于 iContentHeightProxy
+    private final AtomicReference<AnchorHeights> pendingAnchorHeights = new AtomicReference<>();
+    private final Runnable applyAnchorHeights = new Runnable() {
+        @Override
+        public void run() {
+            applyPublishedAnchors();
+        }
+    };
 
     public void setContentHeightProxy(IContentHeightProxy iContentHeightProxy) {
         this.iContentHeightProxy = iContentHeightProxy;
+        invalidateAnchors();
+    }
+
+    /**
+     * 各状态的高度只在测量高度变化时向 IContentHeightProxy 重新取值，
+     * proxy 返回的高度变化后需要调用此方法刷新，抽屉会在下一次布局时移动到新位置
+     */
+    public void invalidateAnchors() {
+        anchors.invalidate();
+        requestLayout();
+        resumeIfExposed();
+    }
+
+    /**
+     * 让另一个子 View 也作为抽屉，与主抽屉（第一个子 View）共用同一套触摸分发和拖动，
+     * 按 z 序由触点下最上层的抽屉捕获拖动。其他抽屉只有自己的停靠高度，不参与跟随滚动、嵌套滚动等主抽屉的功能
+     *
+     * @param drawer         尚未加入布局时会加到最上层
+     * @param visibleHeights 停靠时露出的高度（px），初始停在最小的高度
+     */
+    public void addDrawer(View drawer, int... visibleHeights) {
+        if (drawer == drawerView) {
+            throw new IllegalArgumentException("the first child is already the main drawer, use setDetents()");
+        }
+        if (visibleHeights == null || visibleHeights.length == 0) {
+            throw new IllegalArgumentException("a drawer needs at least one visible height");
+        }
+        arbiter.add(drawer, visibleHeights);
+        if (drawer.getParent() == null) {
+            addView(drawer);
+        }
+        requestLayout();
+    }
+
+    public void removeDrawer(View drawer) {
+        if (arbiter.remove(drawer)) {
+            removeView(drawer);
+        }
+    }
+
+    /**
+     * 移动 {@link #addDrawer(View, int...)} 添加的抽屉，下标按展开程度排列，0 为最展开
+     */
+    public void changeDrawerDetent(View drawer, int detent) {
+        DrawerArbiter.SecondaryDrawer secondary = arbiter.find(drawer);
+        if (secondary == null) {
+            throw new IllegalArgumentException("not a drawer of this layout");
+        }
+        secondary.resolve(getMeasuredHeight());
+        setSecondaryDetent(secondary, Math.max(0, Math.min(detent, secondary.anchors.getDetentCount() - 1)));
+        if (!secondary.laidOut) {
+            requestLayout();
+            return;
+        }
+        if (dragHelper.getViewDragState() == ViewDragHelper.STATE_DRAGGING && capturedSecondary != secondary) {
+            //另一个抽屉正在被拖动，不打断手势，直接放到目标位置
+            int top = secondary.anchors.getDetentTop(secondary.detent);
+            drawer.offsetTopAndBottom(top - drawer.getTop());
+            secondary.top = top;
+            return;
+        }
+        finishSharedSettle(drawer);
+        capturedSecondary = secondary;
+        if (dragHelper.smoothSlideViewTo(drawer, drawer.getLeft(), secondary.anchors.getDetentTop(secondary.detent))) {
+            invalidate();
+        } else if (dragHelper.getViewDragState() == ViewDragHelper.STATE_IDLE) {
+            capturedSecondary = null;
+        }
+    }
+
+    public int getDrawerDetent(View drawer) {
+        DrawerArbiter.SecondaryDrawer secondary = arbiter.find(drawer);
+        if (secondary == null) {
+            return drawer == drawerView ? getDrawerDetent() : -1;
+        }
+        secondary.resolve(getMeasuredHeight());
+        return secondary.detent;
+    }
+
+    public void setOnDrawerDetentChangeListener(OnDrawerDetentChangeListener onDrawerDetentChangeListener) {
+        this.drawerDetentChangeListener = onDrawerDetentChangeListener;
+    }
+
+    /**
+     * ViewDragHelper 同一时间只能移动一个抽屉，由它回弹的其他抽屉直接放到回弹的目标位置，不会停在半路
+     *
+     * @param next 接下来由 ViewDragHelper 移动的抽屉
+     */
+    private void finishSharedSettle(View next) {
+        if (dragHelper.getViewDragState() != ViewDragHelper.STATE_SETTLING || getSharedSettleView() == next) {
+            return;
+        }
+        snapToSettleTarget(capturedSecondary);
+        dragHelper.abort();
+    }
+
+    private View getSharedSettleView() {
+        return capturedSecondary != null ? capturedSecondary.view : drawerView;
+    }
+
+    /**
+     * 把 ViewDragHelper 正在回弹的抽屉放到目标位置，abort 只回调位置不会移动 View
+     *
+     * @param secondary 为空时是主抽屉
+     */
+    private void snapToSettleTarget(DrawerArbiter.SecondaryDrawer secondary) {
+        if (secondary != null) {
+            int top = secondary.anchors.getDetentTop(secondary.detent);
+            secondary.view.offsetTopAndBottom(top - secondary.view.getTop());
+            secondary.top = top;
+            if (drawerDetentChangeListener != null) {
+                drawerDetentChangeListener.onDrawerDragging(secondary.view, top);
+            }
+        } else {
+            int top = getAnchors().getDetentTop(getDrawerDetent());
+            drawerView.offsetTopAndBottom(top - drawerView.getTop());
+            postOnDraggingState(top);
+        }
+    }
+
+    private void setSecondaryDetent(DrawerArbiter.SecondaryDrawer secondary, int detent) {
+        if (secondary.detent == detent) {
+            return;
+        }
+        secondary.detent = detent;
+        if (drawerDetentChangeListener != null) {
+            drawerDetentChangeListener.onDrawerDetentChange(secondary.view, detent);
+        }
+    }
+
+    /**
+     * 抽屉上方区域的遮罩，透明度随抽屉展开从 0 变为 color 本身的透明度
+     */
+    public void setScrim(int color) {
+        setScrim(color, 0F, 1F);
+    }
+
+    /**
+     * @param fromProgress 开始出现遮罩的展开进度，0 为最收起，1 为最展开
+     * @param toProgress   遮罩完全出现的展开进度
+     */
+    public void setScrim(int color, float fromProgress, float toProgress) {
+        effects.setScrim(color, fromProgress, toProgress);
+        invalidate();
+    }
+
+    /**
+     * 抽屉展开时背景向上移动 factor 倍的距离
+     * background 需要是本布局的子 View（不能是第一个子 View），会被绘制在抽屉下方，只平移绘制，不影响触摸区域
+     *
+     * @param background 传空清除
+     */
+    public void setParallaxBackground(View background, float factor) {
+        if (background != null && (background == drawerView || background.getParent() != this)) {
+            throw new IllegalArgumentException("parallax background must be a child other than the drawer");
+        }
+        effects.setParallax(background, factor);
+        setChildrenDrawingOrderEnabled(background != null);
+        invalidate();
+    }
+
+    private void invalidateEffects() {
+        //子 View 的位置变化不会重新记录本布局的绘制内容，需要主动重绘
+        if (effects.isActive()) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 抽屉当前绘制的位置，包含拖动预测和跟随滚动的平移
+     */
+    private float getDrawerVisualTop() {
+        return drawerView.getTop() + drawerView.getTranslationY();
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (child == drawerView && effects.hasScrim()) {
+            float top = getDrawerVisualTop();
+            effects.drawScrim(canvas, getWidth(), top, getAnchors().progressOf(Math.round(top)));
+        } else if (child == effects.getParallaxBackground() && effects.hasParallax() && drawerView != null) {
+            int saveCount = canvas.save();
+            canvas.translate(0F, effects.parallaxOffset(getDrawerVisualTop(), getAnchors().getMaxTop()));
+            boolean more = super.drawChild(canvas, child, drawingTime);
+            canvas.restoreToCount(saveCount);
+            return more;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
+    /**
+     * 视差背景最先绘制，其余子 View 保持原有顺序
+     */
+    @Override
+    protected int getChildDrawingOrder(int childCount, int drawingPosition) {
+        int background = indexOfChild(effects.getParallaxBackground());
+        if (background < 0) {
+            return drawingPosition;
+        }
+        if (drawingPosition == 0) {
+            return background;
+        }
+        return drawingPosition <= background ? drawingPosition - 1 : drawingPosition;
+    }
+
+    /**
+     * 抽屉完全隐藏（停在露出高度为 0 的位置）时暂停抽屉：设为 GONE，跳过测量、布局、绘制和触摸查找，
+     * 并回调 {@link OnDrawerLifecycleListener#onDrawerInactive()}，内容可以借此暂停视频、实时列表等；
+     * 抽屉开始拖动或向上回弹时立即恢复并回调 {@link OnDrawerLifecycleListener#onDrawerActive()}
+     * 暂停期间抽屉不能作为 RelativeLayout 中其他子 View 的相对锚点
+     */
+    public void setSuspendWhenHidden(boolean suspendWhenHidden) {
+        this.suspendWhenHidden = suspendWhenHidden;
+        if (suspendWhenHidden) {
+            scheduleSuspendCheck();
+        } else {
+            removeCallbacks(suspendCheck);
+            resumeDrawer();
+        }
+    }
+
+    public void setOnDrawerLifecycleListener(OnDrawerLifecycleListener onDrawerLifecycleListener) {
+        this.drawerLifecycleListener = onDrawerLifecycleListener;
+    }
+
+    /**
+     * @return 抽屉是否因完全隐藏而暂停
+     */
+    public boolean isDrawerSuspended() {
+        return drawerSuspended;
+    }
+
+    private boolean isDrawerHidden() {
+        return suspendWhenHidden && !drawerSuspended && drawerView != null && drawerLaidOut
+                && motionState == ViewDragHelper.STATE_IDLE
+                && drawerView.getTop() + drawerView.getTranslationY() >= getHeight();
+    }
+
+    /**
+     * 布局或回调过程中不直接改变抽屉的可见性，留到下一个消息处理
+     */
+    private void scheduleSuspendCheck() {
+        if (isDrawerHidden()) {
+            post(suspendCheck);
+        }
+    }
+
+    private void suspendDrawer() {
+        drawerSuspended = true;
+        suspendedVisibility = drawerView.getVisibility();
+        scrollableTarget = null;
+        drawerView.setVisibility(GONE);
+        if (drawerLifecycleListener != null) {
+            drawerLifecycleListener.onDrawerInactive();
+        }
+    }
+
+    /**
+     * 暂停的抽屉在新的停靠位置会露出时恢复，在测量之前调用，抽屉以原本的可见性参与下一次测量和布局
+     */
+    private void resumeIfExposed() {
+        if (drawerSuspended && getMeasuredHeight() > 0 && getAnchors().getDetentTop(getDrawerDetent()) < getMeasuredHeight()) {
+            resumeDrawer();
+            requestLayout();
+        }
+    }
+
+    private void resumeDrawer() {
+        if (!drawerSuspended) {
+            return;
+        }
+        drawerSuspended = false;
+        drawerView.setVisibility(suspendedVisibility);
+        if (drawerLifecycleListener != null) {
+            drawerLifecycleListener.onDrawerActive();
+        }
+    }
+
+    /**
+     * 延迟加载抽屉内容，抽屉（第一个子 View）需要是一个 ViewGroup 容器，内容加载完成后加入其中
+     * 需要在布局 attach 之前设置，也可以通过 content_layout / content_inflate 属性设置
+     *
+     * @param mode {@link #CONTENT_INFLATE_ASYNC} 或 {@link #CONTENT_INFLATE_ON_DEMAND}
+     */
+    public void setLazyContent(int layoutRes, int mode) {
+        lazyContent = new LazyDrawerContent(layoutRes, mode);
+        lazyContent.setListener(contentReadyListener);
+        if (drawerView != null) {
+            lazyContent.setContainer(drawerView);
+        }
+    }
+
+    /**
+     * 内容加载完成时回调，已经完成时立即回调；没有延迟加载时内容即抽屉本身
+     */
+    public void setOnContentReadyListener(OnContentReadyListener onContentReadyListener) {
+        this.contentReadyListener = onContentReadyListener;
+        if (lazyContent != null) {
+            lazyContent.setListener(onContentReadyListener);
+        } else if (onContentReadyListener != null && drawerView != null) {
+            onContentReadyListener.onContentReady(drawerView);
+        }
+    }
+
+    public boolean isContentReady() {
+        return lazyContent == null ? drawerView != null : lazyContent.isReady();
+    }
+
+    /**
+     * 立即加载延迟的抽屉内容
+     */
+    public void inflateContent() {
+        ensureContent();
+    }
+
+    private void ensureContent() {
+        if (lazyContent != null && !lazyContent.isReady()) {
+            lazyContent.inflateNow();
+        }
+    }
+
+    /**
+     * 发布后台计算好的停靠高度，任意线程可调用
+     * 高度在下一帧于主线程整体生效，同一帧内多次发布只取最后一次；抽屉随后以回弹动画移动到新位置，
+     * 测量和布局不再向 IContentHeightProxy 同步取值
+     */
+    public void publishAnchors(AnchorHeights heights) {
+        if (heights == null) {
+            throw new IllegalArgumentException("heights == null, use clearPublishedAnchors()");
+        }
+        if (pendingAnchorHeights.getAndSet(heights) == null) {
+            postOnAnimation(applyAnchorHeights);
+        }
+    }
+
+    /**
+     * 回到由 IContentHeightProxy 或 xml 属性提供高度
+     */
+    public void clearPublishedAnchors() {
+        pendingAnchorHeights.set(null);
+        removeCallbacks(applyAnchorHeights);
+        if (anchorHeights != null) {
+            anchorHeights = null;
+            invalidateAnchors();
+        }
+    }
+
+    private void applyPublishedAnchors() {
+        AnchorHeights heights = pendingAnchorHeights.getAndSet(null);
+        if (heights == null) {
+            return;
+        }
+        anchorHeights = heights;
+        if (heights.getDetents() != null) {
+            anchors.setExtraHeights(heights.getDetents());
+        }
+        anchors.invalidate();
+        if (drawerView == null || !drawerLaidOut) {
+            requestLayout();
+            return;
+        }
+        int generation = getAnchors().getGeneration();
+        if (generation == laidOutAnchorGeneration) {
+            return;
+        }
+        if (motionState == ViewDragHelper.STATE_DRAGGING) {
+            //拖动中不打断，松手时按新的停靠位置吸附
+            return;
+        }
+        //由动画移动到新位置，布局不再直接放置
+        laidOutAnchorGeneration = generation;
+        settleTo(getAnchors().getDetentTop(getDrawerDetent()), 0F);
+    }
+
+    DrawerAnchors getAnchors() {
+        if (!anchors.isValidFor(getMeasuredHeight())) {
+            AnchorHeights heights = anchorHeights;
+            if (heights != null) {
+                anchors.resolve(getMeasuredHeight(), heights.getFillHeight(), heights.getHoverHeight(), heights.getCloseHeight(),
+                        heights.hasThresholds(), heights.getTopExpandHeight(), heights.getBottomCollapseHeight());
+            } else if (gestureMetrics != null) {
+                long start = System.nanoTime();
+                anchors.resolve(this, iContentHeightProxy);
+                gestureMetrics.addProxyNanos(System.nanoTime() - start);
+            } else {
+                anchors.resolve(this, iContentHeightProxy);
+            }
+            if (drawerDetent >= 0) {
+                //额外 detent 的下标可能因高度变化而移动，按原高度重新定位
+                drawerDetent = anchors.indexOfHeight(drawerDetentHeight);
+                ViewState preset = anchors.presetAt(drawerDetent);
+                if (preset != null) {
+                    drawerState = preset;
+                    drawerDetent = -1;
+                } else {
+                    drawerState = anchors.nearestPreset(drawerDetent);
+                }
+            }
+        }
+        return anchors;
+    }
+
+    /**
+     * 在 FILL/HOVER/CLOSE 之外增加停靠高度（抽屉露出的高度，px），拖动松手时会吸附到最近的 detent
+     * 传空清除，内容尺寸相关的高度变化后再次调用即可
+     */
+    public void setDetents(int... visibleHeights) {
+        anchors.setExtraHeights(visibleHeights);
+        invalidateAnchors();
+    }
+
+    public int getDetentCount() {
+        return getAnchors().getDetentCount();
+    }
+
+    /**
+     * @return detent 露出的高度
+     */
+    public int getDetentHeight(int detent) {
+        checkDetent(detent);
+        return getAnchors().getDetentHeight(detent);
+    }
+
+    /**
+     * 存放 detent 的数组可能比 detent 数量长，超出范围的下标会读到过期的位置
+     */
+    private void checkDetent(int detent) {
+        int count = getAnchors().getDetentCount();
+        if (detent < 0 || detent >= count) {
+            throw new IllegalArgumentException("detent " + detent + " out of range [0, " + count + ")");
+        }
+    }
+
+    /**
+     * 当前停靠的 detent 下标
+     */
+    public int getDrawerDetent() {
+        DrawerAnchors anchors = getAnchors();
+        return drawerDetent >= 0 ? drawerDetent : anchors.indexOf(drawerState);
+    }
+
+    /**
+     * 松手时用速度投影落点的时间，0 表示只看松手位置
+     *
+     * @param seconds 投影时间，单位秒
+     */
+    public void setReleaseProjection(float seconds) {
+        this.releaseProjection = Math.max(0F, seconds);
+    }
+
+    /**
+     * 开启物理回弹：按减速模型投影甩动的落点选择 detent，回弹时长随剩余距离和松手速度变化
+     * 开启后 {@link #setReleaseProjection(float)} 不再生效，传 null 恢复默认的 ViewDragHelper 回弹
+     */
+    public void setReleasePhysics(ReleasePhysics releasePhysics) {
+        this.releasePhysics = releasePhysics;
+        if (releasePhysics == null && settleScroller != null) {
+            settleScroller.abortAnimation();
+            refreshMotionState();
+        }
+    }
+
+    public ReleasePhysics getReleasePhysics() {
+        return releasePhysics;
+    }
+
+    /**
+     * 拖动时按触点的历史采样预测下一帧的手指位置，抽屉通过 translationY 提前画到预测位置，降低跟手延迟
+     * 预测位置同样限制在抽屉可拖动的范围内，松手或停止拖动时移除偏移
+     *
+     * @param seconds 预测提前量，一般取一帧的时长，0 关闭
+     */
+    public void setDragPrediction(float seconds) {
+        this.dragPrediction = Math.max(0F, seconds);
+        if (dragPrediction == 0F) {
+            clearDragPrediction();
+        }
+    }
+
+    private void predictDrag(MotionEvent ev, int action) {
+        if (drawerView == null || motionState != ViewDragHelper.STATE_DRAGGING) {
+            return;
+        }
+        int index = ev.findPointerIndex(dragHelper.getActivePointerId());
+        if (action != MotionEvent.ACTION_MOVE || index < 0) {
+            //换手指时采样不连续，重新开始
+            dragPredictor.reset();
+            return;
+        }
+        dragPredictor.add(ev, index);
+        int top = drawerView.getTop();
+        float predictedTop = top + dragPredictor.predictOffset(dragPrediction * 1000F);
+        predictedTop = Math.min(Math.max(predictedTop, 0F), getAnchors().getMaxTop());
+        predictionOffset = predictedTop - top;
+        updateDrawerTranslation();
+    }
+
+    private void clearDragPrediction() {
+        dragPredictor.reset();
+        if (predictionOffset != 0F) {
+            predictionOffset = 0F;
+            updateDrawerTranslation();
+        }
+    }
+
+    /**
+     * 抽屉的 translationY 由拖动预测和跟随滚动两部分组成
+     */
+    private void updateDrawerTranslation() {
+        if (drawerView != null) {
+            drawerView.setTranslationY(predictionOffset - followOffset);
+            invalidateEffects();
+        }
+    }
+
+    /**
+     * 是否在进行 ViewDragHelper 之外的回弹
+     */
+    private boolean isDrawerSettling() {
+        return frameSettleEngine.isRunning() || (settleScroller != null && !settleScroller.isFinished());
+    }
+
+    /**
+     * 回弹改为由 Choreographer 逐帧驱动，用 offsetTopAndBottom 移动抽屉，
+     * 不再经过 computeScroll 每帧 invalidate 整个布局；未设置 {@link ReleasePhysics} 时使用默认参数计算时长
+     */
+    public void setFrameSettleEnabled(boolean frameSettleEnabled) {
+        this.frameSettleEnabled = frameSettleEnabled;
+        if (!frameSettleEnabled) {
+            frameSettleEngine.cancel();
+            refreshMotionState();
+        }
+    }
+
+    public boolean isFrameSettleEnabled() {
+        return frameSettleEnabled;
+    }
+
+    private ReleasePhysics settlePhysics() {
+        if (releasePhysics != null) {
+            return releasePhysics;
+        }
+        if (defaultPhysics == null) {
+            defaultPhysics = new ReleasePhysics();
+        }
+        return defaultPhysics;
+    }
+
+    private int computeSettleDuration(int targetTop, float yvel) {
+        DrawerAnchors anchors = getAnchors();
+        return settlePhysics().computeSettleDuration(targetTop - drawerView.getTop(), yvel, anchors.getMaxTop() - anchors.getDetentTop(0));
+    }
+
+    private void startFrameSettle(int targetTop, float yvel) {
+        startFrameSettle(targetTop, computeSettleDuration(targetTop, yvel), null);
+    }
+
+    private void startFrameSettle(int targetTop, int duration, Interpolator interpolator) {
+        settleStarting = true;
+        //ViewDragHelper 正在移动其他抽屉时不打断
+        if (capturedSecondary == null) {
+            if (dragHelper.getViewDragState() == ViewDragHelper.STATE_SETTLING && dragHelper.getCapturedView() == drawerView) {
+                //abort 会把抽屉直接放到 ViewDragHelper 的目标位置，改为原地停下，从当前位置接着移动
+                dragHelper.smoothSlideViewTo(drawerView, drawerView.getLeft(), drawerView.getTop());
+            } else {
+                dragHelper.abort();
+            }
+        }
+        if (settleScroller != null) {
+            settleScroller.abortAnimation();
+        }
+        frameSettleEngine.start(drawerView, targetTop, duration, interpolator);
+        settleStarting = false;
+        refreshMotionState();
+    }
+
+    /**
+     * 拖动、回弹、静止三种状态，合并了 ViewDragHelper 与自身回弹引擎的状态
+     *
+     * @return ViewDragHelper.STATE_IDLE / STATE_DRAGGING / STATE_SETTLING
+     */
+    public int getDrawerMotionState() {
+        return motionState;
+    }
+
+    private void refreshMotionState() {
+        if (settleStarting) {
+            return;
+        }
+        int dragState = capturedSecondary == null ? dragHelper.getViewDragState() : ViewDragHelper.STATE_IDLE;
+        int state;
+        if (dragState == ViewDragHelper.STATE_DRAGGING || nestedDragging) {
+            state = ViewDragHelper.STATE_DRAGGING;
+        } else if (dragState == ViewDragHelper.STATE_SETTLING || isDrawerSettling()) {
+            state = ViewDragHelper.STATE_SETTLING;
+        } else {
+            state = ViewDragHelper.STATE_IDLE;
+        }
+        if (state == motionState) {
+            return;
+        }
+        if (DrawerDiagnostics.ENABLED && drawerView != null) {
+            getDiagnostics().recordMotion(motionState, state, drawerView.getTop());
+        }
+        motionState = state;
+        if (gestureRecording != null) {
+            gestureRecording.appendMotionChange(SystemClock.uptimeMillis(), state);
+        }
+        if (state != ViewDragHelper.STATE_DRAGGING) {
+            clearDragPrediction();
+        }
+        if (state == ViewDragHelper.STATE_IDLE) {
+            layerPromoter.release();
+            followScroll.schedule();
+            scheduleSuspendCheck();
+        } else {
+            resumeDrawer();
+            ensureContent();
+            if (layerPromotionEnabled && drawerView != null) {
+                layerPromoter.promote(drawerView);
+            }
+        }
+        if (gestureMetrics != null && gestureMetrics.onMotionStateChanged(state)) {
+            gestureMetrics.finish(drawerState, getDrawerDetent());
+        }
+        if (state == ViewDragHelper.STATE_SETTLING) {
+            statusListeners.dispatchSettlingStarted(drawerState, getDrawerDetent());
+        } else if (state == ViewDragHelper.STATE_IDLE) {
+            statusListeners.dispatchSettled(drawerState, getDrawerDetent());
+        }
+        updateActiveTransition(state);
+    }
+
+    /**
+     * 拖动或回弹开始时把抽屉提升为硬件层，回到静止时恢复；
+     * 移动期间抽屉内容持续刷新（Android 8.0 以上可感知）时自动退回普通绘制
+     */
+    public void setLayerPromotionEnabled(boolean layerPromotionEnabled) {
+        this.layerPromotionEnabled = layerPromotionEnabled;
+        if (!layerPromotionEnabled) {
+            layerPromoter.release();
+        } else if (motionState != ViewDragHelper.STATE_IDLE && drawerView != null) {
+            layerPromoter.promote(drawerView);
+        }
+    }
+
+    public boolean isLayerPromotionEnabled() {
+        return layerPromotionEnabled;
+    }
+
+    public void setOnLayerPromotionListener(OnLayerPromotionListener onLayerPromotionListener) {
+        layerPromoter.setListener(onLayerPromotionListener);
+    }
+
+    @Override
+    public void onDescendantInvalidated(@NonNull View child, @NonNull View target) {
+        super.onDescendantInvalidated(child, target);
+        if (child == drawerView) {
+            layerPromoter.onDescendantInvalidated(target);
+        }
+    }
+
+    private void startPhysicsSettle(int targetTop, float yvel) {
+        if (settleScroller == null) {
+            settleScroller = new OverScroller(getContext(), new Interpolator() {
+                @Override
+                public float getInterpolation(float input) {
+                    return ReleasePhysics.interpolate(input);
+                }
+            });
+        }
+        settleStarting = true;
+        if (capturedSecondary == null) {
+            dragHelper.abort();
+        }
+        frameSettleEngine.cancel();
+        settleStarting = false;
+        int startTop = drawerView.getTop();
+        int distance = targetTop - startTop;
+        int duration = computeSettleDuration(targetTop, yvel);
+        settleScroller.abortAnimation();
+        if (duration == 0) {
+            drawerView.offsetTopAndBottom(distance);
+            postOnDraggingState(targetTop);
+            refreshMotionState();
+            return;
+        }
+        settleScroller.startScroll(0, startTop, 0, distance, duration);
+        refreshMotionState();
+    }
+
+    /**
+     * 作为嵌套滚动的父布局驱动抽屉：内容向上滚动时先展开抽屉，内容滚到顶后继续下拉时收起抽屉，
+     * 松手或 fling 时按速度吸附到 detent。开启后不再在每次触摸时查找 NestedScrollView/RecyclerView，
+     * 内容需要支持嵌套滚动（RecyclerView、NestedScrollView、ViewPager2 页面等）
+     */
+    public void setNestedDragEnabled(boolean nestedDragEnabled) {
+        this.nestedDragEnabled = nestedDragEnabled;
+        if (nestedDragEnabled) {
+            scrollableTarget = null;
+        }
+    }
+
+    public boolean isNestedDragEnabled() {
+        return nestedDragEnabled;
+    }
+
+    @Override
+    public boolean onStartNestedScroll(@NonNull View child, @NonNull View target, int axes, int type) {
+        return nestedDragEnabled && enableDrag && !isFollowingScroll && child == drawerView
+                && (axes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0;
+    }
+
+    @Override
+    public void onNestedScrollAccepted(@NonNull View child, @NonNull View target, int axes, int type) {
+        nestedScrollingParentHelper.onNestedScrollAccepted(child, target, axes, type);
+        if (type == ViewCompat.TYPE_TOUCH) {
+            nestedTouchActive = true;
+            nestedDragging = false;
+            nestedFlingHandled = false;
+        }
+    }
+
+    @Override
+    public void onNestedPreScroll(@NonNull View target, int dx, int dy, @NonNull int[] consumed, int type) {
+        //内容向上滚动前先把抽屉展开到最高的 detent
+        if (type == ViewCompat.TYPE_TOUCH && dy > 0) {
+            consumed[1] = offsetDrawerByNestedScroll(dy);
+        }
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int type, @NonNull int[] consumed) {
+        //内容已经滚到顶，剩余的下拉距离用来收起抽屉
+        if (type == ViewCompat.TYPE_TOUCH && dyUnconsumed < 0) {
+            consumed[1] += offsetDrawerByNestedScroll(dyUnconsumed);
+        }
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int type) {
+        nestedScrollConsumed[1] = 0;
+        onNestedScroll(target, dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, type, nestedScrollConsumed);
+    }
+
+    @Override
+    public boolean onNestedPreFling(@NonNull View target, float velocityX, float velocityY) {
+        if (!nestedDragging) {
+            return false;
+        }
+        //抽屉停在两个 detent 之间，fling 交给抽屉吸附
+        nestedFlingHandled = true;
+        settleNestedDrag(-velocityY);
+        return true;
+    }
+
+    @Override
+    public boolean onNestedFling(@NonNull View target, float velocityX, float velocityY, boolean consumed) {
+        return false;
+    }
+
+    @Override
+    public void onStopNestedScroll(@NonNull View target, int type) {
+        nestedScrollingParentHelper.onStopNestedScroll(target, type);
+        if (type != ViewCompat.TYPE_TOUCH) {
+            return;
+        }
+        nestedTouchActive = false;
+        if (nestedDragging && !nestedFlingHandled) {
+            settleNestedDrag(0F);
+        }
+        nestedDragging = false;
+        refreshMotionState();
+    }
+
+    @Override
+    public int getNestedScrollAxes() {
+        return nestedScrollingParentHelper.getNestedScrollAxes();
+    }
+
+    @Override
+    public boolean onStartNestedScroll(@NonNull View child, @NonNull View target, int nestedScrollAxes) {
+        return onStartNestedScroll(child, target, nestedScrollAxes, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedScrollAccepted(@NonNull View child, @NonNull View target, int axes) {
+        onNestedScrollAccepted(child, target, axes, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedPreScroll(@NonNull View target, int dx, int dy, @NonNull int[] consumed) {
+        onNestedPreScroll(target, dx, dy, consumed, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
+        onNestedScroll(target, dxConsumed, dyConsumed, dxUnconsumed, dyUnconsumed, ViewCompat.TYPE_TOUCH);
+    }
+
+    @Override
+    public void onStopNestedScroll(@NonNull View target) {
+        onStopNestedScroll(target, ViewCompat.TYPE_TOUCH);
+    }
+
+    /**
+     * 按嵌套滚动的距离移动抽屉，范围与拖动一致
+     *
+     * @param dy 内容滚动距离，正数为向上
+     * @return 抽屉消费的距离
+     */
+    private int offsetDrawerByNestedScroll(int dy) {
+        DrawerAnchors anchors = getAnchors();
+        int top = drawerView.getTop();
+        int newTop = Math.min(Math.max(top - dy, anchors.getDetentTop(0)), anchors.getMaxTop());
+        if (newTop == top) {
+            return 0;
+        }
+        if (!nestedDragging) {
+            //打断正在进行的回弹，由手指接管
+            if (settleScroller != null) {
+                settleScroller.abortAnimation();
+            }
+            frameSettleEngine.cancel();
+            dragHelper.abort();
+            nestedDragging = true;
+            refreshMotionState();
+        }
+        nestedWantOpen = newTop < top;
+        drawerView.offsetTopAndBottom(newTop - top);
+        postOnDraggingState(newTop);
+        return top - newTop;
+    }
+
+    /**
+     * @param yvel 抽屉方向的速度，负数为展开
+     */
+    private void settleNestedDrag(float yvel) {
+        nestedDragging = false;
+        int top = drawerView.getTop();
+        boolean isOpening = yvel != 0F ? yvel < 0 : nestedWantOpen;
+        float projection = releasePhysics != null ? releasePhysics.projectDistance(yvel) : yvel * releaseProjection;
+        changeDrawerDetent(getAnchors().snap(top + projection, isOpening), yvel);
     }
 
     public int getTopStateFill() {
-        if (iContentHeightProxy != null) {
+        if (anchorHeights != null) {
+            return anchorHeights.getFillHeight();
+        } else if (iContentHeightProxy != null) {
             return iContentHeightProxy.getFillHeight();
         } else {
             return fillVisHeight;
@@ -538,7 +2359,9 @@ public class TertiaryDrawerLayout extends RelativeLayout {
     }
 
     public int getTopStateHover() {
-        if (iContentHeightProxy != null) {
+        if (anchorHeights != null) {
+            return anchorHeights.getHoverHeight();
+        } else if (iContentHeightProxy != null) {
             return iContentHeightProxy.getHoverHeight();
         } else {
             return hoverVisHeight;
@@ -546,7 +2369,9 @@ public class TertiaryDrawerLayout extends RelativeLayout {
     }
 
     public int getTopStateClose() {
-        if (iContentHeightProxy != null) {
+        if (anchorHeights != null) {
+            return anchorHeights.getCloseHeight();
+        } else if (iContentHeightProxy != null) {
             return iContentHeightProxy.getCloseHeight();
         } else {
             return 0;
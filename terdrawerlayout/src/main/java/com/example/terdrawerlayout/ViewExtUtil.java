@@ -10,22 +10,43 @@ import androidx.recyclerview.widget.RecyclerView;
 
 public class ViewExtUtil {
 
+    private static final int[] LOCATION = new int[2];
+
     public static boolean isUnder(View view, MotionEvent ev) {
         return isUnder(view, ev.getRawX(), ev.getRawY());
     }
 
+    /**
+     * @deprecated 使用 {@link #isUnder(View, float, float)}，避免装箱
+     */
+    @Deprecated
     public static boolean isUnder(View view, Float rawX, Float rawY) {
+        return isUnder(view, rawX.floatValue(), rawY.floatValue());
+    }
+
+    /**
+     * 复用坐标缓存，只能在主线程调用
+     */
+    public static boolean isUnder(View view, float rawX, float rawY) {
         if (view == null) return false;
-        int[] xy = new int[2];
-        view.getLocationOnScreen(xy);
-        return rawX >= xy[0] && rawX <= xy[0] + view.getWidth() && rawY >= xy[1] && rawY <= xy[1] + view.getHeight();
+        view.getLocationOnScreen(LOCATION);
+        return rawX >= LOCATION[0] && rawX <= LOCATION[0] + view.getWidth() && rawY >= LOCATION[1] && rawY <= LOCATION[1] + view.getHeight();
     }
 
+    /**
+     * @deprecated 使用 {@link #findScrollableTarget(View, float, float)}，避免装箱
+     */
+    @Deprecated
     public @Nullable
     static View findScrollableTarget(View view, Float rawX, Float rawY) {
+        return findScrollableTarget(view, rawX.floatValue(), rawY.floatValue());
+    }
+
+    public @Nullable
+    static View findScrollableTarget(View view, float rawX, float rawY) {
         if (!isUnder(view, rawX, rawY)) {
             return null;
-        } else if (view instanceof NestedScrollView || view instanceof RecyclerView) {
+        } else if (isScrollable(view)) {
             return view;
         } else if (!(view instanceof ViewGroup)) {
             return null;
@@ -40,6 +61,9 @@ public class ViewExtUtil {
         }
     }
 
+    public static boolean isScrollable(View view) {
+        return view instanceof NestedScrollView || view instanceof RecyclerView;
+    }
 
     /**
      * 判断布局中是否包含某个控件
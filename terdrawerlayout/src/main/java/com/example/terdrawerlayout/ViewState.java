@@ -2,43 +2,21 @@ package com.example.terdrawerlayout;
 
 
 public enum ViewState {
-    FILL{
-        @Override
-        public int getTop(TertiaryDrawerLayout hoverView) {
-            return hoverView.getMeasuredHeight()-hoverView.getTopStateFill();
-        }
+    FILL,       // 全屏
 
-        @Override
-        public int getHeight(TertiaryDrawerLayout hoverView) {
-            return hoverView.getTopStateFill();
-        }
-    },       // 全屏
+    HOVER,      // 半空悬停
 
-    HOVER{
-        @Override
-        public int getTop(TertiaryDrawerLayout hoverView) {
-            return hoverView.getMeasuredHeight()-hoverView.getTopStateHover();
-        }
+    CLOSE;      // 关闭: 完全藏在屏幕底部
 
-        @Override
-        public int getHeight(TertiaryDrawerLayout hoverView) {
-            return hoverView.getTopStateHover();
-        }
-    },      // 半空悬停
+    /**
+     * 读取布局缓存的位置快照，不会回调 IContentHeightProxy
+     */
+    public int getTop(TertiaryDrawerLayout hoverView) {
+        return hoverView.getAnchors().getTop(this);
+    }
 
-    CLOSE{
-        @Override
-        public int getTop(TertiaryDrawerLayout hoverView) {
-            return hoverView.getMeasuredHeight()-hoverView.getTopStateClose();
-        }
-
-        @Override
-        public int getHeight(TertiaryDrawerLayout hoverView) {
-            return hoverView.getTopStateClose();
-        }
-    };      // 关闭: 完全藏在屏幕底部
-
-    public abstract int getTop(TertiaryDrawerLayout hoverView);
-    public abstract int getHeight(TertiaryDrawerLayout hoverView);
+    public int getHeight(TertiaryDrawerLayout hoverView) {
+        return hoverView.getAnchors().getHeight(this);
+    }
 
 }
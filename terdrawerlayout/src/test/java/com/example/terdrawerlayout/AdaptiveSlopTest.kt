@@ -0,0 +1,99 @@
+package com.example.terdrawerlayout
+
+import android.os.SystemClock
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * 自适应的滑动阈值要决定抽屉何时被捕获，而不只是布局自己的拦截判断
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class AdaptiveSlopTest {
+
+    private fun hoverLayout(thresholds: AdaptiveThresholds?): TertiaryDrawerLayout {
+        val layout = TestDrawers.attach(2, 2)
+        layout.setAdaptiveThresholds(thresholds)
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+        return layout
+    }
+
+    /**
+     * 从抽屉顶部每次向上移动 1px，返回抽屉开始移动时的累计位移
+     */
+    private fun captureDistance(layout: TertiaryDrawerLayout): Int {
+        val drawer = layout.getChildAt(0)
+        val startTop = drawer.top
+        val fromY = startTop + 10f
+        val moves = 40
+        val events = TouchStream.drag("slop", layout.width / 2f, fromY, fromY - moves, moves)
+            .obtain(layout, SystemClock.uptimeMillis())
+        try {
+            var distance = -1
+            for (i in events.indices) {
+                layout.dispatchTouchEvent(events[i])
+                if (distance < 0 && drawer.top < startTop) {
+                    distance = i
+                }
+            }
+            return distance
+        } finally {
+            events.forEach { it.recycle() }
+        }
+    }
+
+    @Test
+    fun reducedSlop_capturesEarlier() {
+        val defaultLayout = hoverLayout(null)
+        val defaultDistance = captureDistance(defaultLayout)
+
+        val thresholds = AdaptiveThresholds()
+        val layout = hoverLayout(thresholds)
+        // 快速的竖直滑动都没有拖动抽屉
+        repeat(30) {
+            thresholds.onGesture(0f, 15f, 10, true, false, false, false, false, false)
+        }
+        assertEquals(AdaptiveThresholds.MIN_SCALE, thresholds.slopScale, 0f)
+        val distance = captureDistance(layout)
+
+        assertTrue(defaultDistance > 0)
+        assertTrue("captured after $distance px, default $defaultDistance px", distance in 1 until defaultDistance)
+        assertTrue(layout.dragSlop < defaultLayout.dragSlop)
+    }
+
+    @Test
+    fun raisedSlop_capturesLater() {
+        val defaultDistance = captureDistance(hoverLayout(null))
+
+        val thresholds = AdaptiveThresholds()
+        val layout = hoverLayout(thresholds)
+        // 抽屉被带动后又停回原位
+        repeat(30) {
+            thresholds.onGesture(0f, 10f, 200, true, true, false, false, false, false)
+        }
+        assertEquals(AdaptiveThresholds.MAX_SCALE, thresholds.slopScale, 0f)
+        val distance = captureDistance(layout)
+
+        assertTrue("captured after $distance px, default $defaultDistance px", distance > defaultDistance)
+    }
+
+    @Test
+    fun removedThresholds_restoreDefaultSlop() {
+        val defaultSlop = hoverLayout(null).dragSlop
+        val thresholds = AdaptiveThresholds()
+        val layout = hoverLayout(thresholds)
+        repeat(30) {
+            thresholds.onGesture(0f, 10f, 200, true, true, false, false, false, false)
+        }
+        captureDistance(layout)
+        TestDrawers.settle(layout)
+        assertTrue(layout.dragSlop > defaultSlop)
+
+        layout.setAdaptiveThresholds(null)
+        assertEquals(defaultSlop, layout.dragSlop)
+    }
+}
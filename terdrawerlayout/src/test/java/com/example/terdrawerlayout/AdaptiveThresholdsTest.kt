@@ -0,0 +1,61 @@
+package com.example.terdrawerlayout
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class AdaptiveThresholdsTest {
+
+    private fun thresholds(): AdaptiveThresholds {
+        val thresholds = AdaptiveThresholds()
+        thresholds.setBase(20, 100)
+        return thresholds
+    }
+
+    @Test
+    fun accidentalCaptures_raiseSlopWithinBounds() {
+        val thresholds = thresholds()
+        thresholds.onGesture(0f, 30f, 200, true, true, false, false, false, false)
+        assertEquals(21, thresholds.touchSlop)
+        assertTrue(thresholds.accidentalCaptureRate > 0f)
+        repeat(100) {
+            thresholds.onGesture(0f, 30f, 200, true, true, false, false, false, false)
+        }
+        assertEquals(40, thresholds.touchSlop)
+    }
+
+    @Test
+    fun missedFlings_lowerSlop() {
+        val thresholds = thresholds()
+        thresholds.onGesture(2f, 15f, 10, true, false, false, false, false, false)
+        assertEquals(19, thresholds.touchSlop)
+        assertTrue(thresholds.missedDragRate > 0f)
+        assertEquals(1, thresholds.gestureCount)
+    }
+
+    @Test
+    fun horizontalSwipesBesideEdge_widenEdge() {
+        val thresholds = thresholds()
+        thresholds.onGesture(80f, 5f, 100, false, false, false, false, true, false)
+        assertEquals(105, thresholds.edgeWidth)
+        thresholds.onGesture(50f, 40f, 100, false, false, false, true, false, true)
+        assertEquals(100, thresholds.edgeWidth)
+    }
+
+    @Test
+    fun quickRegrab_adjustsSnapScale() {
+        val thresholds = thresholds()
+        //想展开但停回原位，随后马上被拖到更展开的位置
+        thresholds.onRelease(0, 2, 2, true)
+        thresholds.onRelease(500, 2, 1, true)
+        assertEquals(1f - AdaptiveThresholds.STEP, thresholds.snapThresholdScale, 1e-6f)
+
+        //换了位置后又被拖回去
+        thresholds.onRelease(5000, 1, 0, true)
+        thresholds.onRelease(5400, 0, 1, false)
+        assertEquals(1f, thresholds.snapThresholdScale, 1e-6f)
+
+        thresholds.reset()
+        assertEquals(0, thresholds.gestureCount)
+        assertEquals(1f, thresholds.snapThresholdScale, 0f)
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.terdrawerlayout
+
+import android.view.ViewGroup
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class ContentLayoutTest {
+
+    private fun topOf(layout: TertiaryDrawerLayout, fraction: Float) = layout.height - (layout.height * fraction).toInt()
+
+    /**
+     * 抽屉内容第一层的第一个子 View 改变高度并请求布局
+     */
+    private fun resizeContent(layout: TertiaryDrawerLayout, height: Int) {
+        val content = (layout.getChildAt(0) as ViewGroup).getChildAt(0)
+        content.layoutParams = content.layoutParams.apply { this.height = height }
+        assertTrue(layout.isLayoutRequested)
+        TestDrawers.advance(16)
+        assertFalse(layout.isLayoutRequested)
+        assertEquals(height, content.height)
+    }
+
+    @Test
+    fun contentRequestLayout_keepsDrawerTopAndFollowOffset() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val drawer = layout.getChildAt(0)
+        assertEquals(topOf(layout, TestDrawers.CLOSE_FRACTION), drawer.top)
+
+        layout.scroll(layout.height / 4)
+        TestDrawers.advance(16)
+        val offset = layout.drawerScrollY
+        assertTrue(offset > 0)
+        assertEquals(-offset.toFloat(), drawer.translationY, 0f)
+
+        resizeContent(layout, 10)
+        assertEquals(topOf(layout, TestDrawers.CLOSE_FRACTION), drawer.top)
+        assertEquals(offset, layout.drawerScrollY)
+        assertEquals(-offset.toFloat(), drawer.translationY, 0f)
+    }
+
+    @Test
+    fun contentRequestLayout_keepsExtraDetent() {
+        val layout = TestDrawers.attach(2, 2)
+        val extraHeight = layout.height * 2 / 3
+        layout.setDetents(extraHeight)
+        TestDrawers.settle(layout)
+        val detent = layout.anchors.indexOfHeight(extraHeight)
+        layout.changeDrawerDetent(detent)
+        TestDrawers.settle(layout)
+        val drawer = layout.getChildAt(0)
+        assertEquals(layout.height - extraHeight, drawer.top)
+
+        resizeContent(layout, 10)
+        assertEquals(layout.height - extraHeight, drawer.top)
+        assertEquals(detent, layout.drawerDetent)
+    }
+}
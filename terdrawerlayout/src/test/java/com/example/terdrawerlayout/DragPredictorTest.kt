@@ -0,0 +1,47 @@
+package com.example.terdrawerlayout
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class DragPredictorTest {
+
+    @Test
+    fun constantVelocity_predictsLinearly() {
+        val predictor = DragPredictor()
+        //每 4ms 向上移动 6px，即 -1.5px/ms
+        for (i in 0..5) {
+            predictor.add(1000L + i * 4, 1200f - i * 6)
+        }
+        assertEquals(-24f, predictor.predictOffset(16f), 0.01f)
+    }
+
+    @Test
+    fun tooFewSamples_predictNothing() {
+        val predictor = DragPredictor()
+        predictor.add(1000L, 1200f)
+        predictor.add(1004L, 1190f)
+        assertEquals(0f, predictor.predictOffset(16f), 0f)
+    }
+
+    @Test
+    fun staleSamples_areIgnored() {
+        val predictor = DragPredictor()
+        //很久之前的快速移动不影响当前的静止
+        predictor.add(0L, 0f)
+        predictor.add(4L, 100f)
+        for (i in 0..3) {
+            predictor.add(1000L + i * 8, 500f)
+        }
+        assertEquals(0f, predictor.predictOffset(16f), 0.01f)
+    }
+
+    @Test
+    fun repeatedTimestamps_areSkipped() {
+        val predictor = DragPredictor()
+        predictor.add(1000L, 100f)
+        predictor.add(1000L, 400f)
+        predictor.add(1008L, 108f)
+        predictor.add(1016L, 116f)
+        assertEquals(16f, predictor.predictOffset(16f), 0.01f)
+    }
+}
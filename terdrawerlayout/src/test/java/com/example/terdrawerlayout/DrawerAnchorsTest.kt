@@ -0,0 +1,92 @@
+package com.example.terdrawerlayout
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class DrawerAnchorsTest {
+
+    private fun anchors(vararg extra: Int, thresholds: Boolean = false): DrawerAnchors {
+        val anchors = DrawerAnchors()
+        anchors.setExtraHeights(extra)
+        // 高 2000，FILL 露出 1800，HOVER 600，CLOSE 100
+        anchors.resolve(2000, 1800, 600, 100, thresholds, 150, 80)
+        return anchors
+    }
+
+    @Test
+    fun presets_sortedByTop() {
+        val anchors = anchors()
+        assertEquals(3, anchors.detentCount)
+        assertEquals(200, anchors.getDetentTop(0))
+        assertEquals(1400, anchors.getDetentTop(1))
+        assertEquals(1900, anchors.getDetentTop(2))
+        assertEquals(1, anchors.indexOf(ViewState.HOVER))
+        assertEquals(ViewState.CLOSE, anchors.presetAt(2))
+    }
+
+    @Test
+    fun extraDetents_mergedAndDeduplicated() {
+        val anchors = anchors(1300, 600, 300)
+        assertEquals(5, anchors.detentCount)
+        assertEquals(700, anchors.getDetentTop(1))
+        assertEquals(1700, anchors.getDetentTop(3))
+        assertEquals(2, anchors.indexOf(ViewState.HOVER))
+        assertNull(anchors.presetAt(1))
+        assertEquals(ViewState.FILL, anchors.nearestPreset(1))
+        assertEquals(ViewState.CLOSE, anchors.nearestPreset(3))
+        assertEquals(3, anchors.indexOfHeight(310))
+    }
+
+    @Test
+    fun snap_midpointWithoutThresholds() {
+        val anchors = anchors(1200)
+        assertEquals(0, anchors.snap(100f, true))
+        assertEquals(0, anchors.snap(499f, false))
+        assertEquals(1, anchors.snap(500f, true))
+        assertEquals(2, anchors.snap(1300f, true))
+        assertEquals(3, anchors.snap(1650f, false))
+        assertEquals(3, anchors.snap(2500f, false))
+    }
+
+    @Test
+    fun snap_scaledThresholdFavorsDragDirection() {
+        val anchors = anchors(1200)
+        assertEquals(1, anchors.snap(600f, true))
+        assertEquals(0, anchors.snap(600f, true, 0.5f))
+        assertEquals(0, anchors.snap(400f, false))
+        assertEquals(1, anchors.snap(400f, false, 0.5f))
+    }
+
+    @Test
+    fun snap_usesProxyThresholdsByDirection() {
+        val anchors = anchors(thresholds = true)
+        // FILL~HOVER 区间使用 topExpandHeight = 150
+        assertEquals(0, anchors.snap(1249f, true))
+        assertEquals(1, anchors.snap(1250f, true))
+        assertEquals(0, anchors.snap(349f, false))
+        assertEquals(1, anchors.snap(350f, false))
+        // HOVER~CLOSE 区间使用 bottomCollapseHeight = 80
+        assertEquals(1, anchors.snap(1819f, true))
+        assertEquals(2, anchors.snap(1481f, false))
+    }
+
+    @Test
+    fun generation_changesOnlyWithResolvedDetents() {
+        val anchors = anchors()
+        val generation = anchors.generation
+        anchors.invalidate()
+        anchors.resolve(2000, 1800, 600, 100, false, 150, 80)
+        assertEquals(generation, anchors.generation)
+
+        // FILL 的 top 下移 1、HOVER 的 top 上移 31，按 31 累乘的签名与之前相同
+        anchors.resolve(2000, 1799, 631, 100, false, 150, 80)
+        assertEquals(generation + 1, anchors.generation)
+
+        anchors.resolve(2000, 1799, 631, 100, false, 150, 81)
+        assertEquals(generation + 2, anchors.generation)
+
+        anchors.setExtraHeights(intArrayOf(1300))
+        anchors.resolve(2000, 1799, 631, 100, false, 150, 81)
+        assertEquals(generation + 3, anchors.generation)
+    }
+}
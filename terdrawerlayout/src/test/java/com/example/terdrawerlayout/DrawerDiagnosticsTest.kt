@@ -0,0 +1,49 @@
+package com.example.terdrawerlayout
+
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class DrawerDiagnosticsTest {
+
+    @Test(expected = IllegalArgumentException::class)
+    fun zeroCapacity_isRejected() {
+        DrawerDiagnostics(0)
+    }
+
+    @Test
+    fun ringBuffer_keepsLatestRecordsInOrder() {
+        val diagnostics = DrawerDiagnostics(3)
+        for (i in 1..5) {
+            diagnostics.record(99, i, 0, 0)
+        }
+        assertEquals(3, diagnostics.size())
+        val lines = diagnostics.dump().trim().lines()
+        assertEquals(3, lines.size)
+        assertTrue(lines[0].endsWith("type=99 3 0 0"))
+        assertTrue(lines[1].endsWith("type=99 4 0 0"))
+        assertTrue(lines[2].endsWith("type=99 5 0 0"))
+
+        diagnostics.clear()
+        assertEquals(0, diagnostics.size())
+        assertEquals("", diagnostics.dump())
+    }
+
+    @Test
+    fun dump_describesEachRecordType() {
+        val diagnostics = DrawerDiagnostics()
+        diagnostics.recordCapture(true, false, true)
+        diagnostics.recordIntercept(2, true, false)
+        diagnostics.recordState(ViewState.HOVER, 1, 300)
+        diagnostics.recordMotion(1, 2, 280)
+        val lines = diagnostics.dump().trim().lines()
+        assertTrue(lines[0].endsWith("capture=true canDrag=false handleDrawer=true"))
+        assertTrue(lines[1].endsWith("intercept action=2 tap=true drag=false"))
+        assertTrue(lines[2].endsWith("state=HOVER detent=1 top=300"))
+        assertTrue(lines[3].endsWith("motion 1->2 top=280"))
+    }
+}
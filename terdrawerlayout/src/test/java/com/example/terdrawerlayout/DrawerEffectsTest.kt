@@ -0,0 +1,45 @@
+package com.example.terdrawerlayout
+
+import android.view.View
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class DrawerEffectsTest {
+
+    @Test
+    fun scrimAlpha_followsProgressCurve() {
+        val effects = DrawerEffects()
+        effects.setScrim(0x80123456.toInt(), 0.5f, 1f)
+        assertTrue(effects.hasScrim())
+        assertEquals(0x00123456, effects.scrimColorAt(0.2f))
+        assertEquals(0x40123456, effects.scrimColorAt(0.75f))
+        assertEquals(0x80123456.toInt(), effects.scrimColorAt(1f))
+    }
+
+    @Test
+    fun transparentScrim_isInactive() {
+        val effects = DrawerEffects()
+        effects.setScrim(0x00FFFFFF, 0f, 1f)
+        assertFalse(effects.isActive())
+    }
+
+    @Test
+    fun parallaxBackground_isDrawnBeneathDrawer() {
+        val layout = TestDrawers.attach(1, 1)
+        val background = View(layout.context)
+        layout.addView(background)
+        layout.setParallaxBackground(background, 0.5f)
+
+        assertEquals(1, layout.getChildDrawingOrder(2, 0))
+        assertEquals(0, layout.getChildDrawingOrder(2, 1))
+
+        val effects = DrawerEffects()
+        effects.setParallax(background, 0.5f)
+        assertEquals(-100f, effects.parallaxOffset(300f, 500), 0f)
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.terdrawerlayout
+
+import android.os.SystemClock
+import android.view.MotionEvent
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.lang.management.ManagementFactory
+
+/**
+ * 命中测试以及整个拖动手势的触摸链路不能产生对象
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class DrawerHitTesterTest {
+
+    companion object {
+        private const val WARMUP = 20
+        private const val ITERATIONS = 20
+    }
+
+    private val threadBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    @Test
+    fun hitTests_matchDrawerBounds() {
+        val tester = DrawerHitTester()
+        tester.setOrigin(0, 100)
+        tester.setDrawerBounds(0f, 600f, 1080f, 2600f)
+
+        assertTrue(tester.isUnderDrawer(540f, 600f))
+        assertFalse(tester.isUnderDrawer(540f, 599f))
+        assertTrue(tester.isUnderDrawerTop(540f, 900f, 300))
+        assertFalse(tester.isUnderDrawerTop(540f, 901f, 300))
+        assertTrue(tester.isUnderDrawerBlank(540f, 300f, 200))
+        assertFalse(tester.isUnderDrawerBlank(540f, 601f, 200))
+        assertTrue(tester.isOnEdge(20f, 150))
+        assertTrue(tester.isOnEdge(1000f, 150))
+        assertFalse(tester.isOnEdge(540f, 150))
+    }
+
+    @Test
+    fun dragGesture_allocatesNothing() {
+        val layout = TestDrawers.attach(4, 4)
+        reset(layout)
+        val drawer = layout.getChildAt(0)
+        val hoverTop = drawer.top.toFloat()
+        //从抽屉顶部拖到接近全展开，经过 dispatchTouchEvent -> onInterceptTouchEvent -> ViewDragHelper
+        val stream = TouchStream.drag("drag", layout.width / 2f, hoverTop + 10f, layout.height * 0.15f, 30)
+        val events = stream.obtain(layout, SystemClock.uptimeMillis())
+        try {
+            replay(layout, events)
+            assertTrue(drawer.top < hoverTop)
+            // 预热，排除类加载和各种对象池第一次填充的分配
+            repeat(WARMUP) {
+                reset(layout)
+                replay(layout, events)
+            }
+
+            val probe = allocatedBytes()
+            val overhead = allocatedBytes() - probe
+            var allocated = 0L
+            repeat(ITERATIONS) {
+                reset(layout)
+                val before = allocatedBytes()
+                replay(layout, events)
+                allocated += allocatedBytes() - before - overhead
+            }
+            assertEquals(0L, allocated)
+        } finally {
+            events.forEach { it.recycle() }
+        }
+    }
+
+    private fun replay(layout: TertiaryDrawerLayout, events: Array<MotionEvent>) {
+        for (event in events) {
+            layout.dispatchTouchEvent(event)
+        }
+    }
+
+    private fun reset(layout: TertiaryDrawerLayout) {
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+    }
+
+    private fun allocatedBytes(): Long = threadBean.getThreadAllocatedBytes(Thread.currentThread().id)
+}
@@ -0,0 +1,96 @@
+package com.example.terdrawerlayout
+
+import android.content.Context
+import android.view.View
+import android.widget.FrameLayout
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class DrawerLayerPromoterTest {
+
+    /**
+     * Robolectric 下没有硬件加速，抽屉自己声明支持
+     */
+    private class AcceleratedDrawer(context: Context) : FrameLayout(context) {
+        val content = View(context)
+
+        init {
+            addView(content, LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT))
+        }
+
+        override fun isHardwareAccelerated() = true
+    }
+
+    private class Events : TertiaryDrawerLayout.OnLayerPromotionListener {
+        val events = mutableListOf<String>()
+
+        override fun onLayerPromoted() {
+            events.add("promoted")
+        }
+
+        override fun onLayerReleased(promotedNanos: Long, contentInvalidations: Int, fellBack: Boolean) {
+            events.add("released:$contentInvalidations:$fellBack")
+        }
+    }
+
+    private fun attach(events: Events): TertiaryDrawerLayout {
+        val layout = TestDrawers.attachDrawer({
+            it.isLayerPromotionEnabled = true
+            it.setOnLayerPromotionListener(events)
+        }) { AcceleratedDrawer(it) }
+        TestDrawers.settle(layout)
+        events.events.clear()
+        return layout
+    }
+
+    @Test
+    fun settle_promotesLayerUntilIdle() {
+        val events = Events()
+        val layout = attach(events)
+        val drawer = layout.getChildAt(0)
+        assertEquals(View.LAYER_TYPE_NONE, drawer.layerType)
+
+        layout.changeDrawerState(ViewState.FILL)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        assertEquals(View.LAYER_TYPE_HARDWARE, drawer.layerType)
+        assertEquals(listOf("promoted"), events.events)
+
+        TestDrawers.settle(layout)
+        assertEquals(ViewDragHelper.STATE_IDLE, layout.drawerMotionState)
+        assertEquals(View.LAYER_TYPE_NONE, drawer.layerType)
+        assertEquals(listOf("promoted", "released:0:false"), events.events)
+    }
+
+    @Test
+    fun contentInvalidations_fallBackUntilNextMove() {
+        val events = Events()
+        val layout = attach(events)
+        val drawer = layout.getChildAt(0) as AcceleratedDrawer
+
+        layout.changeDrawerState(ViewState.FILL)
+        //抽屉自身的位置变化不计入
+        layout.onDescendantInvalidated(drawer, drawer)
+        for (i in 0..DrawerLayerPromoter.INVALIDATION_LIMIT) {
+            layout.onDescendantInvalidated(drawer, drawer.content)
+        }
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        assertEquals(View.LAYER_TYPE_NONE, drawer.layerType)
+        val released = "released:${DrawerLayerPromoter.INVALIDATION_LIMIT + 1}:true"
+        assertEquals(listOf("promoted", released), events.events)
+
+        TestDrawers.settle(layout)
+        assertEquals(listOf("promoted", released), events.events)
+
+        layout.changeDrawerState(ViewState.HOVER)
+        assertEquals(View.LAYER_TYPE_HARDWARE, drawer.layerType)
+        TestDrawers.settle(layout)
+        assertEquals(View.LAYER_TYPE_NONE, drawer.layerType)
+        assertEquals(listOf("promoted", released, "promoted", "released:0:false"), events.events)
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.terdrawerlayout
+
+import android.view.animation.LinearInterpolator
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class DrawerTransitionTest {
+
+    private class Events : DrawerTransition.Listener {
+        val events = mutableListOf<String>()
+
+        override fun onSettlingStarted(transition: DrawerTransition) {
+            events.add("started")
+        }
+
+        override fun onSettled(transition: DrawerTransition) {
+            events.add("settled")
+        }
+
+        override fun onCancelled(transition: DrawerTransition) {
+            events.add("cancelled")
+        }
+    }
+
+    private fun topOf(layout: TertiaryDrawerLayout, fraction: Float) = layout.height - (layout.height * fraction).toInt()
+
+    @Test
+    fun transition_reportsStartAndSettle() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val events = Events()
+        val transition = layout.animateDrawer(ViewState.FILL).addListener(events)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        assertEquals(listOf("started"), events.events)
+
+        TestDrawers.settle(layout)
+        assertTrue(transition.isSettled)
+        assertEquals(listOf("started", "settled"), events.events)
+        assertEquals(topOf(layout, TestDrawers.FILL_FRACTION), layout.getChildAt(0).top)
+    }
+
+    @Test
+    fun changeDrawerDetent_rejectsOutOfRangeIndex() {
+        val layout = TestDrawers.attach(2, 2)
+        layout.setDetents(layout.height / 2, layout.height / 3)
+        TestDrawers.settle(layout)
+        // 去掉额外 detent 后数组仍保留原来的长度
+        layout.setDetents()
+        TestDrawers.settle(layout)
+        val count = layout.detentCount
+        assertEquals(3, count)
+        for (detent in intArrayOf(-1, count, count + 1, 100)) {
+            try {
+                layout.changeDrawerDetent(detent)
+                fail("detent $detent accepted")
+            } catch (expected: IllegalArgumentException) {
+            }
+        }
+        assertEquals(ViewDragHelper.STATE_IDLE, layout.drawerMotionState)
+        layout.changeDrawerDetent(count - 1)
+        TestDrawers.settle(layout)
+        assertEquals(ViewState.CLOSE, layout.drawState)
+    }
+
+    @Test
+    fun stateChange_isReportedBeforeSettlingStarts() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val order = mutableListOf<String>()
+        layout.addOnStatusChangeListener(object : TertiaryDrawerLayout.OnStatusChangeListener {
+            override fun onStateChange(viewState: ViewState) {
+                order.add("state:$viewState")
+            }
+
+            override fun onSettlingStarted(viewState: ViewState, detent: Int) {
+                order.add("settling:$viewState")
+            }
+
+            override fun onSettled(viewState: ViewState, detent: Int) {
+                order.add("settled:$viewState")
+            }
+        })
+
+        layout.animateDrawer(ViewState.FILL)
+        TestDrawers.settle(layout)
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+        assertEquals(listOf("state:FILL", "settling:FILL", "settled:FILL",
+                "state:HOVER", "settling:HOVER", "settled:HOVER"), order)
+    }
+
+    @Test
+    fun chainedTransitions_runInOrder() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val drawer = layout.getChildAt(0)
+        val tops = mutableListOf<Int>()
+        val recorder = object : DrawerTransition.Listener {
+            override fun onSettled(transition: DrawerTransition) {
+                tops.add(drawer.top)
+            }
+        }
+        val first = layout.animateDrawer(ViewState.FILL).addListener(recorder)
+        val second = first.then(ViewState.HOVER).addListener(recorder)
+        val third = layout.queueDrawerTransition(layout.getAnchors().indexOf(ViewState.CLOSE)).addListener(recorder)
+        assertFalse(second.isRunning)
+
+        //前一次停稳后下一次立即开始，抽屉一直处于回弹中
+        TestDrawers.settle(layout)
+        assertTrue(first.isSettled && second.isSettled && third.isSettled)
+        assertEquals(listOf(
+                topOf(layout, TestDrawers.FILL_FRACTION),
+                topOf(layout, TestDrawers.HOVER_FRACTION),
+                topOf(layout, TestDrawers.CLOSE_FRACTION)), tops)
+    }
+
+    @Test
+    fun newTransition_interruptsFromCurrentPosition() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val drawer = layout.getChildAt(0)
+        val first = layout.animateDrawer(layout.getAnchors().indexOf(ViewState.FILL), 300, LinearInterpolator())
+        val queued = first.then(ViewState.HOVER)
+        TestDrawers.advance(100)
+        val top = drawer.top
+        assertTrue(top < topOf(layout, TestDrawers.CLOSE_FRACTION))
+
+        val events = Events()
+        val second = layout.animateDrawer(ViewState.CLOSE).addListener(events)
+        assertTrue(first.isCancelled)
+        assertTrue(queued.isCancelled)
+        assertEquals(top, drawer.top)
+        assertEquals(listOf("started"), events.events)
+
+        TestDrawers.settle(layout)
+        assertTrue(second.isSettled)
+        assertEquals(topOf(layout, TestDrawers.CLOSE_FRACTION), drawer.top)
+    }
+
+    @Test
+    fun followingScroll_cancelsImmediately() {
+        val layout = TestDrawers.attach(2, 2)
+        layout.setIsFollowingScroll(true)
+        val events = Events()
+        val transition = layout.animateDrawer(ViewState.FILL).addListener(events)
+        assertTrue(transition.isCancelled)
+        assertEquals(listOf("cancelled"), events.events)
+    }
+}
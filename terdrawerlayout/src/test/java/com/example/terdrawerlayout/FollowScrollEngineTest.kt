@@ -0,0 +1,58 @@
+package com.example.terdrawerlayout
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class FollowScrollEngineTest {
+
+    private var drawerTop = 400
+    private var rangeComputations = 0
+    private val offsets = mutableListOf<Int>()
+
+    private val engine = FollowScrollEngine(object : FollowScrollEngine.Callback {
+        override fun computeFollowRange(): Int {
+            rangeComputations++
+            return 400
+        }
+
+        override fun isAtFollowPosition(range: Int) = drawerTop == range
+
+        override fun onFollowOffset(offset: Int) {
+            offsets.add(offset)
+        }
+    })
+
+    @Test
+    fun updatesInOneFrame_areAppliedOnce() {
+        engine.scrollTo(100)
+        engine.scrollTo(150)
+        engine.scrollTo(200)
+        assertEquals(0, offsets.size)
+
+        engine.flush()
+        assertEquals(listOf(200), offsets)
+        assertEquals(0.5f, engine.progress, 0f)
+        assertEquals(1, rangeComputations)
+    }
+
+    @Test
+    fun progressIsKept_whileDrawerLeavesFollowPosition() {
+        engine.scrollTo(1000)
+        engine.flush()
+        assertEquals(1f, engine.progress, 0f)
+
+        drawerTop = 0
+        engine.flush()
+        assertEquals(0, engine.offset)
+        assertEquals(1f, engine.progress, 0f)
+
+        drawerTop = 400
+        engine.flush()
+        assertEquals(listOf(400, 0, 400), offsets)
+    }
+}
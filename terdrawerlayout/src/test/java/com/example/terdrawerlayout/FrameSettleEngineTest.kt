@@ -0,0 +1,78 @@
+package com.example.terdrawerlayout
+
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class FrameSettleEngineTest {
+
+    private fun topOf(layout: TertiaryDrawerLayout, fraction: Float) = layout.height - (layout.height * fraction).toInt()
+
+    /**
+     * 只推进时钟、不调用 computeScroll，抽屉的每一帧都来自 Choreographer
+     */
+    private fun advanceFrames(layout: TertiaryDrawerLayout, tops: MutableList<Int>) {
+        var frames = 0
+        while (layout.drawerMotionState != ViewDragHelper.STATE_IDLE && frames++ < 300) {
+            TestDrawers.advance(16)
+            tops.add(layout.getChildAt(0).top)
+        }
+    }
+
+    @Test
+    fun frameSettle_reachesDetent() {
+        val layout = TestDrawers.attach(2, 2) { it.isFrameSettleEnabled = true }
+        TestDrawers.settle(layout)
+        val settled = mutableListOf<ViewState>()
+        layout.addOnStatusChangeListener(object : TertiaryDrawerLayout.OnStatusChangeListener {
+            override fun onSettled(viewState: ViewState, detent: Int) {
+                settled.add(viewState)
+            }
+        })
+        val drawer = layout.getChildAt(0)
+        val startTop = drawer.top
+        val fillTop = topOf(layout, TestDrawers.FILL_FRACTION)
+        assertTrue(startTop > fillTop)
+
+        layout.changeDrawerState(ViewState.FILL)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        val tops = mutableListOf<Int>()
+        advanceFrames(layout, tops)
+
+        assertEquals(ViewDragHelper.STATE_IDLE, layout.drawerMotionState)
+        assertEquals(fillTop, drawer.top)
+        assertEquals(ViewState.FILL, layout.drawState)
+        assertEquals(listOf(ViewState.FILL), settled)
+        assertTrue("settle finished in a single frame", tops.size > 2)
+        for (i in 1 until tops.size) {
+            assertTrue("drawer moved back at frame $i", tops[i] <= tops[i - 1])
+        }
+    }
+
+    @Test
+    fun retarget_continuesFromCurrentPosition() {
+        val layout = TestDrawers.attach(2, 2) { it.isFrameSettleEnabled = true }
+        TestDrawers.settle(layout)
+        val drawer = layout.getChildAt(0)
+
+        layout.changeDrawerState(ViewState.FILL)
+        TestDrawers.advance(16)
+        TestDrawers.advance(16)
+        TestDrawers.advance(16)
+        val midTop = drawer.top
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+
+        layout.changeDrawerState(ViewState.CLOSE)
+        assertEquals(midTop, drawer.top)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        advanceFrames(layout, mutableListOf())
+
+        assertEquals(topOf(layout, TestDrawers.CLOSE_FRACTION), drawer.top)
+        assertEquals(ViewState.CLOSE, layout.drawState)
+    }
+}
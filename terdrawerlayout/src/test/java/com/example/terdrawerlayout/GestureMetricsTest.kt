@@ -0,0 +1,112 @@
+package com.example.terdrawerlayout
+
+import android.os.SystemClock
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class GestureMetricsTest {
+
+    /**
+     * GestureSummary 是复用的实例，回调时复制下来
+     */
+    private data class Summary(
+        val fromTouch: Boolean,
+        val touchToFirstMoveNanos: Long,
+        val dragFrames: Int,
+        val settleFrames: Int,
+        val settleNanos: Long,
+        val durationNanos: Long,
+        val finalState: ViewState,
+        val finalDetent: Int
+    )
+
+    private class Summaries : TertiaryDrawerLayout.OnGestureMetricsListener {
+        val summaries = mutableListOf<Summary>()
+
+        override fun onGestureSummary(summary: GestureSummary) {
+            summaries.add(Summary(summary.isFromTouch, summary.touchToFirstMoveNanos, summary.dragFrames, summary.settleFrames,
+                    summary.settleNanos, summary.durationNanos, summary.finalState, summary.finalDetent))
+        }
+    }
+
+    private fun attach(summaries: Summaries): TertiaryDrawerLayout {
+        val layout = TestDrawers.attach(2, 2)
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+        layout.setOnGestureMetricsListener(summaries)
+        return layout
+    }
+
+    /**
+     * 逐个分发事件，事件之间推进时钟，让拖动期间的帧回调真实发生
+     */
+    private fun play(layout: TertiaryDrawerLayout, stream: TouchStream, frameMillis: Long) {
+        val events = stream.obtain(layout, SystemClock.uptimeMillis())
+        try {
+            for (event in events) {
+                layout.dispatchTouchEvent(event)
+                TestDrawers.advance(frameMillis)
+            }
+        } finally {
+            events.forEach { it.recycle() }
+        }
+    }
+
+    @Test
+    fun dragGesture_reportsOneSummary() {
+        val summaries = Summaries()
+        val layout = attach(summaries)
+        val hoverTop = layout.getChildAt(0).top.toFloat()
+
+        play(layout, TouchStream.drag("expand", layout.width / 2f, hoverTop + 10f, layout.height * 0.15f, 20, 16), 16)
+        TestDrawers.settle(layout)
+
+        assertEquals(1, summaries.summaries.size)
+        val summary = summaries.summaries[0]
+        assertTrue(summary.fromTouch)
+        assertTrue(summary.touchToFirstMoveNanos >= 0)
+        assertTrue(summary.dragFrames > 0)
+        assertTrue(summary.settleFrames > 0)
+        assertTrue(summary.settleNanos > 0)
+        assertTrue(summary.durationNanos >= summary.settleNanos)
+        assertEquals(ViewState.FILL, summary.finalState)
+        assertEquals(ViewState.FILL, layout.drawState)
+        assertEquals(layout.drawerDetent, summary.finalDetent)
+    }
+
+    @Test
+    fun programmaticMove_reportsSettleOnly() {
+        val summaries = Summaries()
+        val layout = attach(summaries)
+
+        layout.changeDrawerState(ViewState.FILL)
+        TestDrawers.settle(layout)
+
+        assertEquals(1, summaries.summaries.size)
+        val summary = summaries.summaries[0]
+        assertFalse(summary.fromTouch)
+        assertEquals(-1L, summary.touchToFirstMoveNanos)
+        assertEquals(0, summary.dragFrames)
+        assertTrue(summary.settleFrames > 0)
+        assertEquals(ViewState.FILL, summary.finalState)
+        assertEquals(layout.anchors.indexOf(ViewState.FILL), summary.finalDetent)
+    }
+
+    @Test
+    fun tapWithoutMove_isNotReported() {
+        val summaries = Summaries()
+        val layout = attach(summaries)
+        val hoverTop = layout.getChildAt(0).top.toFloat()
+
+        play(layout, TouchStream.tap("tap", layout.width / 2f, hoverTop + 10f), 16)
+        TestDrawers.settle(layout)
+
+        assertTrue(summaries.summaries.isEmpty())
+        assertEquals(ViewState.HOVER, layout.drawState)
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.terdrawerlayout
+
+import android.os.SystemClock
+import android.view.MotionEvent
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.*
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+
+/**
+ * 录制的手势回放到新的布局上，状态变化和每个事件后的抽屉位置必须一致
+ * src/test/resources/gestures 下的 .tdgr 文件作为回归语料一并回放
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class GestureReplayTest {
+
+    @Test
+    fun dragUp_replaysIdentically() {
+        val recording = record { layout ->
+            val height = layout.height.toFloat()
+            TouchStream.drag("dragUp", layout.width / 2f, height * 0.8f, height * 0.2f, 30)
+        }
+        assertTrue(recording.eventCount > 0)
+        assertTrue(recording.transitionCount > 0)
+        // 拖动、回弹、静止
+        assertTrue(recording.motionChangeCount >= 3)
+        assertEquals(ViewDragHelper.STATE_IDLE, recording.getMotionChangeState(recording.motionChangeCount - 1))
+
+        val restored = roundTrip(recording)
+        GestureReplayer.assertSameOutcome(recording, restored)
+        GestureReplayer.assertSameOutcome(recording, GestureReplayer.replay(restored, hoverLayout()))
+    }
+
+    @Test
+    fun tapOnBlank_replaysIdentically() {
+        val recording = record { layout ->
+            TouchStream.tap("tapOnBlank", layout.width / 2f, layout.height * 0.05f)
+        }
+        GestureReplayer.assertSameOutcome(recording, GestureReplayer.replay(roundTrip(recording), hoverLayout()))
+    }
+
+    @Test
+    fun corpus_replaysIdentically() {
+        val directory = javaClass.classLoader?.getResource("gestures")?.let { File(it.toURI()) }
+        val files = directory?.listFiles { file -> file.name.endsWith(".tdgr") }.orEmpty()
+        assumeTrue("no recordings in src/test/resources/gestures, record them with corpus_record", files.isNotEmpty())
+        for (file in files) {
+            val recording = file.inputStream().use { GestureRecording.readFrom(it) }
+            GestureReplayer.assertSameOutcome(recording, GestureReplayer.replay(recording, hoverLayout()))
+        }
+    }
+
+    /**
+     * 把脚本手势的录制写入语料目录，只在指定目录时运行：
+     * ./gradlew :terdrawerlayout:testDebugUnitTest --tests '*GestureReplayTest.corpus_record' -Dgestures.record=src/test/resources/gestures
+     */
+    @Test
+    fun corpus_record() {
+        val target = System.getProperty("gestures.record")
+        assumeTrue(target != null)
+        val directory = File(target!!)
+        assertTrue(directory.isDirectory || directory.mkdirs())
+        val scripts = listOf<(TertiaryDrawerLayout) -> TouchStream>(
+            { TouchStream.drag("dragUp", it.width / 2f, it.height * 0.8f, it.height * 0.2f, 30) },
+            { TouchStream.drag("dragDown", it.width / 2f, it.height * 0.65f, it.height * 0.95f, 20) },
+            { TouchStream.tap("tapOnBlank", it.width / 2f, it.height * 0.05f) }
+        )
+        for (script in scripts) {
+            var name = ""
+            val recording = record { layout -> script(layout).also { name = it.name } }
+            File(directory, "$name.tdgr").outputStream().use { recording.writeTo(it) }
+        }
+    }
+
+    @Test
+    fun readFrom_rejectsOtherData() {
+        try {
+            GestureRecording.readFrom(ByteArrayInputStream(ByteArray(16)))
+            fail()
+        } catch (expected: java.io.IOException) {
+        }
+    }
+
+    @Test
+    fun readFrom_rejectsCorruptCounts() {
+        assertRejected(recordingBytes(eventCount = -1))
+        assertRejected(recordingBytes(eventCount = Int.MAX_VALUE))
+        assertRejected(recordingBytes(transitionCount = -1))
+        assertRejected(recordingBytes(transitionCount = Int.MAX_VALUE))
+        // 声明的事件比实际写入的多
+        assertRejected(recordingBytes(eventCount = 3))
+    }
+
+    @Test
+    fun readFrom_rejectsOutOfRangeValues() {
+        assertRejected(recordingBytes(motionState = 3))
+        assertRejected(recordingBytes(motionState = -1))
+        assertRejected(recordingBytes(transitionState = ViewState.values().size))
+        assertRejected(recordingBytes(transitionState = -1))
+        assertRejected(recordingBytes(transitionEvent = 2))
+        assertRejected(recordingBytes(transitionDetent = -1))
+        assertRejected(recordingBytes(motionChangeState = 3))
+        assertRejected(recordingBytes(motionChangeTime = -1))
+
+        val recording = GestureRecording.readFrom(ByteArrayInputStream(recordingBytes()))
+        assertEquals(1, recording.eventCount)
+        assertEquals(ViewState.FILL, recording.getTransitionState(0))
+        assertEquals(40, recording.getMotionChangeTime(0))
+        // 第 1 版没有运动状态变化的记录
+        assertEquals(0, GestureRecording.readFrom(ByteArrayInputStream(recordingBytes(version = 1))).motionChangeCount)
+    }
+
+    /**
+     * 按 writeTo 的格式手写一个事件、一次状态变化、一次运动状态变化的录制，可以把其中的字段改成非法值
+     */
+    private fun recordingBytes(
+        version: Int = 2,
+        eventCount: Int = 1,
+        motionState: Int = 0,
+        transitionCount: Int = 1,
+        transitionEvent: Int = 1,
+        transitionState: Int = ViewState.FILL.ordinal,
+        transitionDetent: Int = 0,
+        motionChangeTime: Int = 40,
+        motionChangeState: Int = ViewDragHelper.STATE_IDLE
+    ): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        val out = DataOutputStream(bytes)
+        out.writeInt(0x54444752)
+        out.writeByte(version)
+        out.writeInt(320)
+        out.writeInt(480)
+        out.writeInt(eventCount)
+        out.writeShort(MotionEvent.ACTION_UP)
+        out.writeInt(16)
+        out.writeFloat(160f)
+        out.writeFloat(100f)
+        out.writeInt(48)
+        out.writeByte(motionState)
+        out.writeInt(transitionCount)
+        out.writeInt(transitionEvent)
+        out.writeByte(transitionState)
+        out.writeInt(transitionDetent)
+        if (version >= 2) {
+            out.writeInt(1)
+            out.writeInt(motionChangeTime)
+            out.writeByte(motionChangeState)
+        }
+        out.flush()
+        return bytes.toByteArray()
+    }
+
+    private fun assertRejected(bytes: ByteArray) {
+        try {
+            GestureRecording.readFrom(ByteArrayInputStream(bytes))
+            fail()
+        } catch (expected: java.io.IOException) {
+        }
+    }
+
+    private fun record(stream: (TertiaryDrawerLayout) -> TouchStream): GestureRecording {
+        val layout = hoverLayout()
+        val events = stream(layout).obtain(layout, SystemClock.uptimeMillis())
+        try {
+            layout.startGestureRecording()
+            GestureReplayer.drive(layout, events)
+            return layout.stopGestureRecording()
+        } finally {
+            events.forEach { it.recycle() }
+        }
+    }
+
+    private fun roundTrip(recording: GestureRecording): GestureRecording {
+        val bytes = ByteArrayOutputStream()
+        recording.writeTo(bytes)
+        return GestureRecording.readFrom(ByteArrayInputStream(bytes.toByteArray()))
+    }
+
+    private fun hoverLayout(): TertiaryDrawerLayout {
+        val layout = TestDrawers.attach(4, 3)
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+        return layout
+    }
+}
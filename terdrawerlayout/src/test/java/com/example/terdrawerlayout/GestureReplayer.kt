@@ -0,0 +1,83 @@
+package com.example.terdrawerlayout
+
+import android.os.SystemClock
+import android.view.MotionEvent
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.assertEquals
+
+/**
+ * 把触摸序列按录制时的时间间隔送进布局：每个事件前把 Robolectric 时钟推进到事件时间，事件后补一帧 computeScroll，
+ * 最后一个事件后逐帧推进到抽屉静止，录制里因此包含松手后回弹的结束时刻
+ */
+object GestureReplayer {
+
+    fun drive(layout: TertiaryDrawerLayout, events: Array<MotionEvent>) {
+        for (event in events) {
+            val delay = event.eventTime - SystemClock.uptimeMillis()
+            if (delay > 0) {
+                TestDrawers.advance(delay)
+            }
+            layout.dispatchTouchEvent(event)
+            layout.computeScroll()
+        }
+        var frames = 0
+        while (layout.drawerMotionState != ViewDragHelper.STATE_IDLE && frames++ < 300) {
+            TestDrawers.advance(16)
+            layout.computeScroll()
+        }
+    }
+
+    /**
+     * 回放录制并返回回放过程中的录制
+     */
+    fun replay(recording: GestureRecording, layout: TertiaryDrawerLayout): GestureRecording {
+        assertEquals("layout width", recording.width, layout.width)
+        assertEquals("layout height", recording.height, layout.height)
+        val events = obtain(recording, layout)
+        try {
+            layout.startGestureRecording()
+            drive(layout, events)
+            return layout.stopGestureRecording()
+        } finally {
+            events.forEach { it.recycle() }
+        }
+    }
+
+    fun assertSameOutcome(expected: GestureRecording, actual: GestureRecording) {
+        assertEquals("event count", expected.eventCount, actual.eventCount)
+        for (i in 0 until expected.eventCount) {
+            assertEquals("action of event $i", expected.getAction(i), actual.getAction(i))
+            assertEquals("top after event $i", expected.getTop(i), actual.getTop(i))
+            assertEquals("motion state after event $i", expected.getMotionState(i), actual.getMotionState(i))
+        }
+        assertEquals("transition count", expected.transitionCount, actual.transitionCount)
+        for (i in 0 until expected.transitionCount) {
+            assertEquals("event of transition $i", expected.getTransitionEvent(i), actual.getTransitionEvent(i))
+            assertEquals("state of transition $i", expected.getTransitionState(i), actual.getTransitionState(i))
+            assertEquals("detent of transition $i", expected.getTransitionDetent(i), actual.getTransitionDetent(i))
+        }
+        // 拖动、回弹开始和结束的时刻，回弹时长或帧数变化都会反映在这里
+        assertEquals("motion change count", expected.motionChangeCount, actual.motionChangeCount)
+        for (i in 0 until expected.motionChangeCount) {
+            assertEquals("state of motion change $i", expected.getMotionChangeState(i), actual.getMotionChangeState(i))
+            assertEquals("time of motion change $i", expected.getMotionChangeTime(i), actual.getMotionChangeTime(i))
+        }
+    }
+
+    private fun obtain(recording: GestureRecording, layout: TertiaryDrawerLayout): Array<MotionEvent> {
+        val origin = IntArray(2)
+        layout.getLocationOnScreen(origin)
+        val base = SystemClock.uptimeMillis()
+        var downTime = base
+        return Array(recording.eventCount) { i ->
+            val eventTime = base + recording.getEventTime(i)
+            if (recording.getAction(i) == MotionEvent.ACTION_DOWN) {
+                downTime = eventTime
+            }
+            val event = MotionEvent.obtain(downTime, eventTime, recording.getAction(i),
+                recording.getX(i) + origin[0], recording.getY(i) + origin[1], 0)
+            event.offsetLocation(-origin[0].toFloat(), -origin[1].toFloat())
+            event
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.terdrawerlayout
+
+import android.view.View
+import android.view.ViewGroup
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class LazyDrawerContentTest {
+
+    @Test
+    fun onDemandContent_isInflatedWhenOpening() {
+        var ready: View? = null
+        val layout = TestDrawers.attach(1, 1) {
+            it.setLazyContent(android.R.layout.simple_list_item_1, TertiaryDrawerLayout.CONTENT_INFLATE_ON_DEMAND)
+            it.setOnContentReadyListener { content -> ready = content }
+        }
+        val drawer = layout.getChildAt(0) as ViewGroup
+        val childCount = drawer.childCount
+        assertFalse(layout.isContentReady)
+        assertNull(ready)
+
+        layout.changeDrawerState(ViewState.HOVER)
+        assertTrue(layout.isContentReady)
+        //占位被内容替换
+        assertEquals(childCount, drawer.childCount)
+        assertSame(drawer.getChildAt(childCount - 1), ready)
+
+        //已经加载过，后续展开不会重复加载
+        TestDrawers.settle(layout)
+        layout.changeDrawerState(ViewState.FILL)
+        assertEquals(childCount, drawer.childCount)
+    }
+
+    @Test
+    fun placeholder_hasPeekHeightUntilReady() {
+        val layout = TestDrawers.attach(1, 1) {
+            it.setLazyContent(android.R.layout.simple_list_item_1, TertiaryDrawerLayout.CONTENT_INFLATE_ON_DEMAND)
+        }
+        val drawer = layout.getChildAt(0) as ViewGroup
+        val placeholder = drawer.getChildAt(drawer.childCount - 1)
+        assertEquals(layout.anchors.getHeight(ViewState.CLOSE), placeholder.height)
+
+        layout.inflateContent()
+        assertNull(placeholder.parent)
+    }
+
+    @Test
+    fun closing_doesNotInflate() {
+        val layout = TestDrawers.attach(1, 1) {
+            it.setLazyContent(android.R.layout.simple_list_item_1, TertiaryDrawerLayout.CONTENT_INFLATE_ON_DEMAND)
+        }
+        layout.changeDrawerState(ViewState.CLOSE)
+        TestDrawers.settle(layout)
+        assertFalse(layout.isContentReady)
+    }
+}
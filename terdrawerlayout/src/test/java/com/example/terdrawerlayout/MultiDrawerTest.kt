@@ -0,0 +1,132 @@
+package com.example.terdrawerlayout
+
+import android.view.View
+import android.view.ViewGroup
+import android.widget.FrameLayout
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class MultiDrawerTest {
+
+    @Test
+    fun secondaryDrawer_movesWithoutTouchingMainDrawer() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val height = layout.height
+        val mainDrawer = layout.getChildAt(0)
+        val mainTop = mainDrawer.top
+        val details = FrameLayout(layout.context)
+        details.layoutParams = ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT)
+        val detents = mutableListOf<Int>()
+        layout.setOnDrawerDetentChangeListener(object : TertiaryDrawerLayout.OnDrawerDetentChangeListener {
+            override fun onDrawerDetentChange(drawer: View, detent: Int) {
+                assertSame(details, drawer)
+                detents.add(detent)
+            }
+        })
+
+        layout.addDrawer(details, 50, height / 2)
+        TestDrawers.advance(16)
+        assertEquals(1, layout.getDrawerDetent(details))
+        assertEquals(height - 50, details.top)
+
+        layout.changeDrawerDetent(details, 0)
+        settleFrames(layout)
+        assertEquals(height - height / 2, details.top)
+        assertEquals(listOf(0), detents)
+        assertEquals(mainTop, mainDrawer.top)
+        assertEquals(ViewDragHelper.STATE_IDLE, layout.drawerMotionState)
+    }
+
+    @Test
+    fun removedDrawer_isForgotten() {
+        val layout = TestDrawers.attach(2, 2)
+        val details = View(layout.context)
+        layout.addDrawer(details, 80)
+        TestDrawers.advance(16)
+        assertEquals(0, layout.getDrawerDetent(details))
+
+        layout.removeDrawer(details)
+        assertNull(details.parent)
+        assertEquals(-1, layout.getDrawerDetent(details))
+    }
+
+    private fun addDetails(layout: TertiaryDrawerLayout): View {
+        val details = FrameLayout(layout.context)
+        details.layoutParams = ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT)
+        layout.addDrawer(details, 50, layout.height / 2)
+        TestDrawers.advance(16)
+        return details
+    }
+
+    @Test
+    fun secondaryMove_finishesMainDrawerSettle() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val height = layout.height
+        val mainDrawer = layout.getChildAt(0)
+        val details = addDetails(layout)
+        val settled = mutableListOf<ViewState>()
+        layout.addOnStatusChangeListener(object : TertiaryDrawerLayout.OnStatusChangeListener {
+            override fun onSettled(viewState: ViewState, detent: Int) {
+                settled.add(viewState)
+            }
+        })
+
+        layout.changeDrawerState(ViewState.FILL)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        layout.changeDrawerDetent(details, 0)
+        // 主抽屉不会停在半路
+        assertEquals(height - (height * TestDrawers.FILL_FRACTION).toInt(), mainDrawer.top)
+        assertEquals(ViewDragHelper.STATE_IDLE, layout.drawerMotionState)
+        assertEquals(listOf(ViewState.FILL), settled)
+
+        settleFrames(layout)
+        assertEquals(height - height / 2, details.top)
+        assertEquals(height - (height * TestDrawers.FILL_FRACTION).toInt(), mainDrawer.top)
+        assertEquals(listOf(ViewState.FILL), settled)
+    }
+
+    @Test
+    fun mainMove_doesNotStrandSecondarySettle() {
+        val layout = TestDrawers.attach(2, 2)
+        TestDrawers.settle(layout)
+        val height = layout.height
+        val mainDrawer = layout.getChildAt(0)
+        val details = addDetails(layout)
+
+        layout.changeDrawerDetent(details, 0)
+        repeat(3) {
+            TestDrawers.advance(16)
+            layout.computeScroll()
+        }
+        assertTrue(details.top > height - height / 2)
+        layout.changeDrawerState(ViewState.FILL)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+
+        settleFrames(layout)
+        assertEquals(height - height / 2, details.top)
+        assertEquals(0, layout.getDrawerDetent(details))
+        assertEquals(height - (height * TestDrawers.FILL_FRACTION).toInt(), mainDrawer.top)
+        assertEquals(ViewDragHelper.STATE_IDLE, layout.drawerMotionState)
+
+        // 之后重新布局也不会把两个抽屉放回别处
+        layout.requestLayout()
+        TestDrawers.advance(16)
+        assertEquals(height - height / 2, details.top)
+        assertEquals(height - (height * TestDrawers.FILL_FRACTION).toInt(), mainDrawer.top)
+    }
+
+    private fun settleFrames(layout: TertiaryDrawerLayout) {
+        repeat(120) {
+            TestDrawers.advance(16)
+            layout.computeScroll()
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.terdrawerlayout
+
+import android.view.View
+import android.view.ViewGroup
+import androidx.core.view.ViewCompat
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * 直接以内容（最深处的 RecyclerView）的身份回调嵌套滚动，驱动抽屉
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class NestedDragTest {
+
+    private lateinit var layout: TertiaryDrawerLayout
+    private lateinit var drawer: View
+    private lateinit var target: View
+    private val states = mutableListOf<ViewState>()
+
+    @Before
+    fun setUp() {
+        layout = TestDrawers.attach(2, 2) { it.setNestedDragEnabled(true) }
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+        drawer = layout.getChildAt(0)
+        target = deepest(drawer)
+        layout.addOnStatusChangeListener(object : TertiaryDrawerLayout.OnStatusChangeListener {
+            override fun onStateChange(viewState: ViewState) {
+                states.add(viewState)
+            }
+        })
+        assertTrue(layout.onStartNestedScroll(drawer, target, ViewCompat.SCROLL_AXIS_VERTICAL, ViewCompat.TYPE_TOUCH))
+        layout.onNestedScrollAccepted(drawer, target, ViewCompat.SCROLL_AXIS_VERTICAL, ViewCompat.TYPE_TOUCH)
+    }
+
+    @Test
+    fun preScroll_expandsDrawerFirst() {
+        val top = drawer.top
+        val consumed = IntArray(2)
+        layout.onNestedPreScroll(target, 0, 40, consumed, ViewCompat.TYPE_TOUCH)
+        assertEquals(40, consumed[1])
+        assertEquals(top - 40, drawer.top)
+        assertEquals(ViewDragHelper.STATE_DRAGGING, layout.drawerMotionState)
+
+        //向下滚动交给内容
+        consumed[1] = 0
+        layout.onNestedPreScroll(target, 0, -40, consumed, ViewCompat.TYPE_TOUCH)
+        assertEquals(0, consumed[1])
+    }
+
+    @Test
+    fun unconsumedScroll_collapsesDrawer() {
+        val top = drawer.top
+        val consumed = IntArray(2)
+        layout.onNestedScroll(target, 0, 0, 0, -30, ViewCompat.TYPE_TOUCH, consumed)
+        assertEquals(-30, consumed[1])
+        assertEquals(top + 30, drawer.top)
+    }
+
+    @Test
+    fun fling_snapsToDetent() {
+        layout.onNestedPreScroll(target, 0, layout.height / 4, IntArray(2), ViewCompat.TYPE_TOUCH)
+        assertTrue(layout.onNestedPreFling(target, 0f, 3000f))
+        TestDrawers.settle(layout)
+        assertEquals(ViewState.FILL, layout.drawState)
+        assertEquals(layout.height - (layout.height * TestDrawers.FILL_FRACTION).toInt(), drawer.top)
+    }
+
+    @Test
+    fun flingThenStop_settlesOnce() {
+        layout.onNestedPreScroll(target, 0, layout.height / 4, IntArray(2), ViewCompat.TYPE_TOUCH)
+        layout.onNestedPreFling(target, 0f, 3000f)
+        layout.onStopNestedScroll(target, ViewCompat.TYPE_TOUCH)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        TestDrawers.settle(layout)
+        assertEquals(listOf(ViewState.FILL), states)
+    }
+
+    private fun deepest(view: View): View {
+        var current = view
+        while (current is ViewGroup && current.childCount > 0) {
+            current = current.getChildAt(current.childCount - 1)
+        }
+        return current
+    }
+}
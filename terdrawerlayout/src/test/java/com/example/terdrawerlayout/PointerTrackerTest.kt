@@ -0,0 +1,62 @@
+package com.example.terdrawerlayout
+
+import android.view.MotionEvent
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * 第二根手指按下、活动触点抬起时位移保持连续
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class PointerTrackerTest {
+
+    @Test
+    fun secondPointer_doesNotMoveDelta() {
+        val tracker = PointerTracker()
+        tracker.onTouchEvent(event(MotionEvent.ACTION_DOWN, 0, floatArrayOf(100f, 500f)), 0f, 50f)
+        tracker.onTouchEvent(event(MotionEvent.ACTION_MOVE, 0, floatArrayOf(100f, 480f)), 0f, 50f)
+        assertEquals(-20f, tracker.deltaY, 0f)
+
+        //第二根手指按在很远的位置，活动触点不变
+        tracker.onTouchEvent(event(pointerAction(MotionEvent.ACTION_POINTER_DOWN, 1), 0, floatArrayOf(100f, 480f), floatArrayOf(300f, 900f)), 0f, 50f)
+        tracker.onTouchEvent(event(MotionEvent.ACTION_MOVE, 0, floatArrayOf(100f, 470f), floatArrayOf(300f, 880f)), 0f, 50f)
+        assertEquals(-30f, tracker.deltaY, 0f)
+        assertEquals(520f, tracker.y, 0f)
+
+        //活动触点抬起，交给第二根手指，累计位移不跳变
+        tracker.onTouchEvent(event(pointerAction(MotionEvent.ACTION_POINTER_UP, 0), 0, floatArrayOf(100f, 470f), floatArrayOf(300f, 880f)), 0f, 50f)
+        assertEquals(1, tracker.activePointerId)
+        assertEquals(-30f, tracker.deltaY, 0f)
+        tracker.onTouchEvent(event(MotionEvent.ACTION_MOVE, 1, floatArrayOf(300f, 860f)), 0f, 50f)
+        assertEquals(-50f, tracker.deltaY, 0f)
+        assertEquals(100f, tracker.startX, 0f)
+
+        tracker.onTouchEvent(event(MotionEvent.ACTION_UP, 1, floatArrayOf(300f, 860f)), 0f, 50f)
+        assertEquals(PointerTracker.INVALID_POINTER, tracker.activePointerId)
+    }
+
+    private fun pointerAction(action: Int, index: Int) = action or (index shl MotionEvent.ACTION_POINTER_INDEX_SHIFT)
+
+    /**
+     * @param firstId 第一个坐标对应的触点 id，其余依次加一
+     */
+    private fun event(action: Int, firstId: Int, vararg positions: FloatArray): MotionEvent {
+        val properties = Array(positions.size) { i ->
+            MotionEvent.PointerProperties().apply {
+                id = firstId + i
+                toolType = MotionEvent.TOOL_TYPE_FINGER
+            }
+        }
+        val coords = Array(positions.size) { i ->
+            MotionEvent.PointerCoords().apply {
+                x = positions[i][0]
+                y = positions[i][1]
+            }
+        }
+        return MotionEvent.obtain(0, 0, action, positions.size, properties, coords, 0, 0, 1f, 1f, 0, 0, 0, 0)
+    }
+}
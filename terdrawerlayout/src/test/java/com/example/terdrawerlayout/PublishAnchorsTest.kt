@@ -0,0 +1,48 @@
+package com.example.terdrawerlayout
+
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * 后台发布的高度在下一帧生效，抽屉以动画移动过去
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class PublishAnchorsTest {
+
+    @Test
+    fun publishedHeights_areAnimatedTo() {
+        val layout = TestDrawers.attach(2, 2)
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+        val height = layout.height
+        val drawer = layout.getChildAt(0)
+        val hover = height / 2
+
+        val executor = Executors.newSingleThreadExecutor()
+        executor.submit {
+            layout.publishAnchors(AnchorHeights(height - 10, height / 3, height / 10))
+            layout.publishAnchors(AnchorHeights(height - 10, hover, height / 10))
+        }.get(1, TimeUnit.SECONDS)
+        executor.shutdown()
+        //发布不会立即移动抽屉
+        assertEquals(height - (height * TestDrawers.HOVER_FRACTION).toInt(), drawer.top)
+
+        TestDrawers.advance(16)
+        assertEquals(hover, layout.topStateHover)
+        assertEquals(ViewDragHelper.STATE_SETTLING, layout.drawerMotionState)
+        TestDrawers.settle(layout)
+        assertEquals(height - hover, drawer.top)
+
+        //之后的布局不会把抽屉放回旧位置
+        layout.requestLayout()
+        TestDrawers.advance(16)
+        assertEquals(height - hover, drawer.top)
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.terdrawerlayout
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class ReleasePhysicsTest {
+
+    @Test
+    fun exponential_projectsVelocityOverFriction() {
+        val physics = ReleasePhysics()
+        physics.setFriction(4f)
+        assertEquals(500f, physics.projectDistance(2000f), 0.01f)
+        assertEquals(-500f, physics.projectDistance(-2000f), 0.01f)
+    }
+
+    @Test
+    fun constant_projectsSquaredVelocity() {
+        val physics = ReleasePhysics()
+        physics.deceleration = ReleasePhysics.Deceleration.CONSTANT
+        physics.setDecelerationRate(10000f)
+        assertEquals(200f, physics.projectDistance(2000f), 0.01f)
+        assertEquals(-200f, physics.projectDistance(-2000f), 0.01f)
+    }
+
+    @Test
+    fun slowRelease_doesNotProject() {
+        val physics = ReleasePhysics()
+        physics.setMinVelocity(100f)
+        assertEquals(0f, physics.projectDistance(99f), 0f)
+        assertEquals(0f, physics.projectDistance(-99f), 0f)
+    }
+
+    @Test
+    fun settleDuration_matchesReleaseVelocity() {
+        val physics = ReleasePhysics()
+        physics.setDurationRange(0, 1000)
+        // 2 * 300px / 3000px/s = 200ms
+        assertEquals(200, physics.computeSettleDuration(300f, 3000f, 2000f))
+        assertEquals(200, physics.computeSettleDuration(-300f, -3000f, 2000f))
+    }
+
+    @Test
+    fun settleDuration_scalesWithDistanceWithoutVelocity() {
+        val physics = ReleasePhysics()
+        physics.setDurationRange(0, 400)
+        assertEquals(400, physics.computeSettleDuration(2000f, 0f, 2000f))
+        assertEquals(200, physics.computeSettleDuration(500f, 0f, 2000f))
+        // 速度背离目标时同样按距离计算
+        assertEquals(200, physics.computeSettleDuration(500f, -3000f, 2000f))
+        assertEquals(0, physics.computeSettleDuration(0.5f, 0f, 2000f))
+    }
+
+    @Test
+    fun settleDuration_clampedToRange() {
+        val physics = ReleasePhysics()
+        physics.setDurationRange(120, 400)
+        assertEquals(120, physics.computeSettleDuration(10f, 20000f, 2000f))
+        assertEquals(400, physics.computeSettleDuration(1500f, 100f, 2000f))
+    }
+
+    @Test
+    fun interpolation_startsFastAndEndsAtRest() {
+        assertEquals(0f, ReleasePhysics.interpolate(0f), 0f)
+        assertEquals(1f, ReleasePhysics.interpolate(1f), 0f)
+        assertEquals(0.75f, ReleasePhysics.interpolate(0.5f), 0.0001f)
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.terdrawerlayout
+
+import android.os.Parcel
+import android.os.Parcelable
+import androidx.customview.widget.ViewDragHelper
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class SavedStateTest {
+
+    @Test
+    fun restoredDrawer_isPlacedWithoutSettling() {
+        val source = TestDrawers.attach(2, 2)
+        source.changeDrawerState(ViewState.FILL)
+        TestDrawers.settle(source)
+        source.setFollowProgress(0.25f)
+        val saved = parcel(source.onSaveInstanceState())
+
+        val states = mutableListOf<ViewState>()
+        val restored = TestDrawers.attach(2, 2) {
+            it.onRestoreInstanceState(saved)
+            it.addOnStatusChangeListener(object : TertiaryDrawerLayout.OnStatusChangeListener {
+                override fun onStateChange(state: ViewState) {
+                    states.add(state)
+                }
+            })
+        }
+
+        assertEquals(ViewState.FILL, restored.drawState)
+        assertEquals(ViewDragHelper.STATE_IDLE, restored.drawerMotionState)
+        assertEquals(restored.height - (restored.height * TestDrawers.FILL_FRACTION).toInt(), restored.getChildAt(0).top)
+        assertEquals(0.25f, restored.followProgress, 0f)
+        assertEquals(listOf(ViewState.FILL), states)
+    }
+
+    @Test
+    fun restoredOpenDrawer_inflatesOnDemandContent() {
+        val source = TestDrawers.attach(1, 1)
+        source.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(source)
+        val saved = parcel(source.onSaveInstanceState())
+
+        //恢复时抽屉已经绑定
+        val attached = TestDrawers.attach(1, 1) {
+            it.setLazyContent(android.R.layout.simple_list_item_1, TertiaryDrawerLayout.CONTENT_INFLATE_ON_DEMAND)
+        }
+        assertFalse(attached.isContentReady)
+        attached.onRestoreInstanceState(saved)
+        assertTrue(attached.isContentReady)
+        TestDrawers.advance(16)
+        assertEquals(ViewState.HOVER, attached.drawState)
+
+        //恢复发生在抽屉绑定之前
+        val early = TestDrawers.attach(1, 1) {
+            it.setLazyContent(android.R.layout.simple_list_item_1, TertiaryDrawerLayout.CONTENT_INFLATE_ON_DEMAND)
+            it.onRestoreInstanceState(saved)
+        }
+        assertTrue(early.isContentReady)
+    }
+
+    private fun parcel(state: Parcelable): Parcelable {
+        val parcel = Parcel.obtain()
+        try {
+            state.writeToParcel(parcel, 0)
+            parcel.setDataPosition(0)
+            return TertiaryDrawerLayout.SavedState.CREATOR.createFromParcel(parcel)
+        } finally {
+            parcel.recycle()
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.terdrawerlayout
+
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class StatusListenerRegistryTest {
+
+    private class Recorder(private val name: String, private val log: MutableList<String>) : TertiaryDrawerLayout.OnStatusChangeListener {
+        override fun onDragging(offset: Int) {
+            log.add("$name:$offset")
+        }
+
+        override fun onStateChange(viewState: ViewState) {
+            log.add("$name:$viewState")
+        }
+    }
+
+    @Test
+    fun dispatch_followsRegistrationOrder() {
+        val log = mutableListOf<String>()
+        val registry = StatusListenerRegistry()
+        val b = Recorder("b", log)
+        registry.add(b)
+        registry.add(Recorder("a", log))
+        registry.add(Recorder("c", log))
+        assertFalse(registry.add(b))
+
+        registry.dispatchPosition(10, 0.5f)
+        registry.dispatchStateChange(ViewState.HOVER, 1)
+        assertEquals(listOf("b:10", "a:10", "c:10", "b:HOVER", "a:HOVER", "c:HOVER"), log)
+    }
+
+    @Test
+    fun removedListener_isNoLongerCalled() {
+        val log = mutableListOf<String>()
+        val layout = TestDrawers.attach(1, 1)
+        val kept = Recorder("kept", log)
+        val removed = Recorder("removed", log)
+        layout.addOnStatusChangeListener(removed)
+        layout.addOnStatusChangeListener(kept)
+        layout.removeOnStatusChangeListener(removed)
+
+        layout.changeDrawerState(ViewState.FILL)
+        TestDrawers.settle(layout)
+        assertTrue(log.isNotEmpty())
+        assertTrue(log.none { it.startsWith("removed") })
+
+        //移除最后一个监听后不再分发位置
+        layout.removeOnStatusChangeListener(kept)
+        log.clear()
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+        assertTrue(log.isEmpty())
+    }
+
+    @Test
+    fun coalescing_dispatchesLatestPositionOncePerFrame() {
+        val log = mutableListOf<String>()
+        val registry = StatusListenerRegistry()
+        registry.add(Recorder("a", log))
+        registry.setCoalescing(true)
+
+        registry.dispatchPosition(10, 0.1f)
+        registry.dispatchPosition(20, 0.2f)
+        registry.dispatchPosition(30, 0.3f)
+        assertTrue(log.isEmpty())
+
+        TestDrawers.advance(16)
+        assertEquals(listOf("a:30"), log)
+
+        //关闭合并时立即分发等待中的位置
+        registry.dispatchPosition(40, 0.4f)
+        registry.setCoalescing(false)
+        assertEquals(listOf("a:30", "a:40"), log)
+        TestDrawers.advance(16)
+        assertEquals(listOf("a:30", "a:40"), log)
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.terdrawerlayout
+
+import android.view.View
+import org.junit.Assert.*
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [30])
+class SuspendWhenHiddenTest {
+
+    @Test
+    fun hiddenDrawer_isSuspendedUntilOpened() {
+        val events = mutableListOf<String>()
+        val layout = TestDrawers.attach(2, 2) {
+            it.setSuspendWhenHidden(true)
+            it.setOnDrawerLifecycleListener(object : TertiaryDrawerLayout.OnDrawerLifecycleListener {
+                override fun onDrawerActive() {
+                    events.add("active")
+                }
+
+                override fun onDrawerInactive() {
+                    events.add("inactive")
+                }
+            })
+        }
+        val height = layout.height
+        layout.publishAnchors(AnchorHeights(height - 10, height / 2, 0))
+        TestDrawers.advance(16)
+        TestDrawers.settle(layout)
+
+        val drawer = layout.getChildAt(0)
+        assertTrue(layout.isDrawerSuspended)
+        assertEquals(View.GONE, drawer.visibility)
+        assertEquals(listOf("inactive"), events)
+
+        layout.changeDrawerState(ViewState.HOVER)
+        assertFalse(layout.isDrawerSuspended)
+        assertEquals(View.VISIBLE, drawer.visibility)
+        assertEquals(listOf("inactive", "active"), events)
+
+        TestDrawers.settle(layout)
+        assertEquals(height / 2, height - drawer.top)
+        assertFalse(layout.isDrawerSuspended)
+    }
+
+    @Test
+    fun exposedByNewAnchors_resumesBeforeMeasure() {
+        val layout = TestDrawers.attach(2, 2) { it.setSuspendWhenHidden(true) }
+        val height = layout.height
+        layout.publishAnchors(AnchorHeights(height - 10, height / 2, 0))
+        TestDrawers.advance(16)
+        TestDrawers.settle(layout)
+        val drawer = layout.getChildAt(0)
+        assertTrue(layout.isDrawerSuspended)
+
+        // 回到 proxy 的高度，CLOSE 重新露出
+        layout.clearPublishedAnchors()
+        assertFalse(layout.isDrawerSuspended)
+        assertEquals(View.VISIBLE, drawer.visibility)
+        assertTrue(layout.isLayoutRequested)
+
+        TestDrawers.advance(16)
+        assertEquals(height - (height * TestDrawers.CLOSE_FRACTION).toInt(), drawer.top)
+        assertEquals(height, drawer.measuredHeight)
+        assertEquals(height, drawer.height)
+    }
+
+    @Test
+    fun visibleCloseHeight_isNeverSuspended() {
+        val layout = TestDrawers.attach(2, 2) { it.setSuspendWhenHidden(true) }
+        TestDrawers.settle(layout)
+        assertFalse(layout.isDrawerSuspended)
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.terdrawerlayout
+
+import android.app.Activity
+import android.content.Context
+import android.os.Looper
+import android.view.View
+import android.view.ViewGroup
+import android.widget.LinearLayout
+import androidx.customview.widget.ViewDragHelper
+import androidx.recyclerview.widget.LinearLayoutManager
+import androidx.recyclerview.widget.RecyclerView
+import org.robolectric.Robolectric
+import org.robolectric.Shadows.shadowOf
+import java.util.concurrent.TimeUnit
+
+/**
+ * Robolectric 下的抽屉层级，供基准和回放测试共用
+ * 抽屉内容为 depth 层 LinearLayout，每层 width - 1 个普通子 View 加一个继续嵌套的子 View，最深处是 RecyclerView
+ */
+object TestDrawers {
+
+    const val FILL_FRACTION = 0.9f
+    const val HOVER_FRACTION = 0.4f
+    const val CLOSE_FRACTION = 0.1f
+
+    /**
+     * @param configure 在加入抽屉和 attach 之前调用
+     */
+    fun attach(depth: Int, width: Int, configure: (TertiaryDrawerLayout) -> Unit = {}): TertiaryDrawerLayout {
+        return attachDrawer(configure) { buildLevel(it, depth, width) }
+    }
+
+    /**
+     * @param drawer 创建作为抽屉的 View
+     */
+    fun attachDrawer(configure: (TertiaryDrawerLayout) -> Unit = {}, drawer: (Context) -> View): TertiaryDrawerLayout {
+        val activity = Robolectric.buildActivity(Activity::class.java).setup().get()
+        val layout = TertiaryDrawerLayout(activity)
+        layout.setContentHeightProxy(FractionProxy(layout))
+        configure(layout)
+        layout.addView(drawer(activity), ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT))
+        activity.setContentView(layout)
+        advance(100)
+        return layout
+    }
+
+    /**
+     * 推进时钟直到抽屉静止
+     */
+    fun settle(layout: TertiaryDrawerLayout) {
+        var frames = 0
+        while (layout.drawerMotionState != ViewDragHelper.STATE_IDLE && frames++ < 300) {
+            advance(16)
+            layout.computeScroll()
+        }
+        advance(16)
+    }
+
+    fun advance(millis: Long) {
+        shadowOf(Looper.getMainLooper()).idleFor(millis, TimeUnit.MILLISECONDS)
+    }
+
+    private fun buildLevel(context: Context, depth: Int, width: Int): View {
+        if (depth <= 0) {
+            val recyclerView = RecyclerView(context)
+            recyclerView.layoutManager = LinearLayoutManager(context)
+            return recyclerView
+        }
+        val level = LinearLayout(context)
+        level.orientation = LinearLayout.VERTICAL
+        for (i in 1 until width) {
+            level.addView(View(context), LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 2))
+        }
+        level.addView(buildLevel(context, depth - 1, width), LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f))
+        return level
+    }
+
+    /**
+     * 各档可见高度按布局高度的比例给出
+     */
+    private class FractionProxy(private val layout: View) : TertiaryDrawerLayout.IContentHeightProxy {
+        override fun getHoverHeight() = (layout.measuredHeight * HOVER_FRACTION).toInt()
+
+        override fun getFillHeight() = (layout.measuredHeight * FILL_FRACTION).toInt()
+
+        override fun getCloseHeight() = (layout.measuredHeight * CLOSE_FRACTION).toInt()
+
+        override fun getTopExpandHeight() = layout.measuredHeight / 10
+
+        override fun getBottomCollapseHeight() = layout.measuredHeight / 20
+    }
+}
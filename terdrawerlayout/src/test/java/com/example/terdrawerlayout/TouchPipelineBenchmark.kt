@@ -0,0 +1,214 @@
+package com.example.terdrawerlayout
+
+import android.os.SystemClock
+import android.view.MotionEvent
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.ParameterizedRobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.util.Locale
+
+/**
+ * 触摸链路基准：把触摸序列经 dispatchTouchEvent -> onInterceptTouchEvent -> onTouchEvent 回放到不同深度和宽度的抽屉上，
+ * 输出每个事件的耗时和分配字节数。除脚本手势外，还回放 src/test/resources/gestures 下的录制
+ * 以及 benchmark.recordings 目录下的 .tdgr 文件（{@link TertiaryDrawerLayout#startGestureRecording()} 在设备上录制），
+ * 录制的坐标按布局尺寸缩放
+ *
+ * 通过系统属性调整：benchmark.iterations 回放次数，benchmark.maxNanosPerEvent / benchmark.maxBytesPerEvent 超出即失败，未设置时只输出；
+ * 阈值与总量乘以事件数比较，不会因为每个事件不足 1 字节而被舍去
+ */
+@RunWith(ParameterizedRobolectricTestRunner::class)
+@Config(sdk = [30])
+class TouchPipelineBenchmark(private val depth: Int, private val width: Int) {
+
+    companion object {
+        private const val WARMUP = 20
+
+        private val iterations = Integer.getInteger("benchmark.iterations", 200)
+        private val maxNanosPerEvent = java.lang.Long.getLong("benchmark.maxNanosPerEvent", -1L)
+        private val maxBytesPerEvent = java.lang.Long.getLong("benchmark.maxBytesPerEvent", -1L)
+        private val recordingsDirectory: String? = System.getProperty("benchmark.recordings")
+
+        @JvmStatic
+        @ParameterizedRobolectricTestRunner.Parameters(name = "depth={0}, width={1}")
+        fun hierarchies(): List<Array<Any>> = listOf(
+            arrayOf(2, 2),
+            arrayOf(8, 4),
+            arrayOf(24, 8)
+        )
+    }
+
+    private val threadBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    private lateinit var layout: TertiaryDrawerLayout
+
+    @Before
+    fun setUp() {
+        layout = TestDrawers.attach(depth, width)
+        reset()
+    }
+
+    @Test
+    fun dragUpOnContent() {
+        val height = layout.height.toFloat()
+        run(TouchStream.drag("dragUpOnContent", layout.width / 2f, height * 0.8f, height * 0.2f, 40))
+    }
+
+    @Test
+    fun dragDownOnContent() {
+        val height = layout.height.toFloat()
+        run(TouchStream.drag("dragDownOnContent", layout.width / 2f, height * 0.7f, height * 0.95f, 20))
+    }
+
+    @Test
+    fun tapOnBlank() {
+        run(TouchStream.tap("tapOnBlank", layout.width / 2f, layout.height * 0.05f))
+    }
+
+    @Test
+    fun recordedGestures() {
+        val files = recordingFiles()
+        assumeTrue("no gesture recordings to replay", files.isNotEmpty())
+        for (file in files) {
+            val recording = file.inputStream().use { GestureRecording.readFrom(it) }
+            if (recording.eventCount == 0) {
+                continue
+            }
+            val events = obtain(recording)
+            try {
+                report("recording/${file.name}", events.size, measure {
+                    replay(events)
+                })
+            } finally {
+                events.forEach { it.recycle() }
+            }
+        }
+    }
+
+    @Test
+    fun findScrollableTarget() {
+        val drawer = layout.getChildAt(0)
+        val index = ScrollableTargetIndex()
+        index.setRoot(drawer)
+        val origin = IntArray(2)
+        drawer.getLocationOnScreen(origin)
+        val x = drawer.width / 2f
+        val step = drawer.height / 64f
+
+        report("findScrollableTarget/legacy", 64, measure {
+            var y = 0f
+            while (y < drawer.height) {
+                ViewExtUtil.findScrollableTarget(drawer, x + origin[0], y + origin[1])
+                y += step
+            }
+        })
+        report("findScrollableTarget/index", 64, measure {
+            var y = 0f
+            while (y < drawer.height) {
+                index.find(x, y)
+                y += step
+            }
+        })
+    }
+
+    private fun run(stream: TouchStream) {
+        val events = stream.obtain(layout, SystemClock.uptimeMillis())
+        try {
+            report(stream.name, events.size, measure {
+                replay(events)
+            })
+        } finally {
+            events.forEach { it.recycle() }
+        }
+    }
+
+    /**
+     * 每轮之间把抽屉放回 HOVER，复位不计入结果
+     *
+     * @return [总耗时 ns, 总分配字节]
+     */
+    private inline fun measure(block: () -> Unit): LongArray {
+        repeat(WARMUP) {
+            block()
+            reset()
+        }
+        val probe = allocatedBytes()
+        val overhead = allocatedBytes() - probe
+        var nanos = 0L
+        var bytes = 0L
+        repeat(iterations) {
+            val before = allocatedBytes()
+            val start = System.nanoTime()
+            block()
+            nanos += System.nanoTime() - start
+            bytes += allocatedBytes() - before - overhead
+            reset()
+        }
+        return longArrayOf(nanos, bytes)
+    }
+
+    private fun report(name: String, eventsPerIteration: Int, result: LongArray) {
+        val events = eventsPerIteration.toLong() * iterations
+        val nanosPerEvent = result[0].toDouble() / events
+        val bytesPerEvent = result[1].toDouble() / events
+        println(String.format(Locale.ROOT, "TouchPipelineBenchmark[depth=%d, width=%d] %s: %.1f ns/event, %.3f B/event (%d B total)",
+            depth, width, name, nanosPerEvent, bytesPerEvent, result[1]))
+        if (maxNanosPerEvent >= 0) {
+            assertTrue("$name: $nanosPerEvent ns/event > $maxNanosPerEvent", result[0] <= maxNanosPerEvent * events)
+        }
+        if (maxBytesPerEvent >= 0) {
+            assertTrue("$name: $bytesPerEvent B/event (${result[1]} B in $events events) > $maxBytesPerEvent",
+                result[1] <= maxBytesPerEvent * events)
+        }
+    }
+
+    private fun recordingFiles(): List<File> {
+        val directories = listOfNotNull(
+            javaClass.classLoader?.getResource("gestures")?.let { File(it.toURI()) },
+            recordingsDirectory?.let { File(it) }
+        )
+        return directories.flatMap { directory ->
+            directory.listFiles { file -> file.name.endsWith(".tdgr") }.orEmpty().sortedBy { it.name }
+        }
+    }
+
+    /**
+     * 按录制时的时间间隔生成事件，坐标从录制时的布局尺寸缩放到当前布局
+     */
+    private fun obtain(recording: GestureRecording): Array<MotionEvent> {
+        val origin = IntArray(2)
+        layout.getLocationOnScreen(origin)
+        val scaleX = if (recording.width > 0) layout.width.toFloat() / recording.width else 1f
+        val scaleY = if (recording.height > 0) layout.height.toFloat() / recording.height else 1f
+        val base = SystemClock.uptimeMillis()
+        var downTime = base
+        return Array(recording.eventCount) { i ->
+            val eventTime = base + recording.getEventTime(i)
+            if (recording.getAction(i) == MotionEvent.ACTION_DOWN) {
+                downTime = eventTime
+            }
+            val event = MotionEvent.obtain(downTime, eventTime, recording.getAction(i),
+                recording.getX(i) * scaleX + origin[0], recording.getY(i) * scaleY + origin[1], 0)
+            event.offsetLocation(-origin[0].toFloat(), -origin[1].toFloat())
+            event
+        }
+    }
+
+    private fun replay(events: Array<MotionEvent>) {
+        for (event in events) {
+            layout.dispatchTouchEvent(event)
+        }
+    }
+
+    private fun reset() {
+        layout.changeDrawerState(ViewState.HOVER)
+        TestDrawers.settle(layout)
+    }
+
+    private fun allocatedBytes(): Long = threadBean.getThreadAllocatedBytes(Thread.currentThread().id)
+}
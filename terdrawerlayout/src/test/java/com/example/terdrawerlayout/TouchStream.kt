@@ -0,0 +1,58 @@
+package com.example.terdrawerlayout
+
+import android.view.MotionEvent
+import android.view.View
+
+/**
+ * 单指触摸序列，坐标相对布局左上角，时间相对按下时刻
+ */
+class TouchStream(
+    val name: String,
+    private val actions: IntArray,
+    private val times: LongArray,
+    private val xs: FloatArray,
+    private val ys: FloatArray
+) {
+
+    val size: Int get() = actions.size
+
+    /**
+     * 按布局在屏幕上的位置生成事件，raw 坐标为屏幕坐标，用完需要 recycle
+     */
+    fun obtain(layout: View, downTime: Long): Array<MotionEvent> {
+        val origin = IntArray(2)
+        layout.getLocationOnScreen(origin)
+        return Array(size) { i ->
+            val event = MotionEvent.obtain(downTime, downTime + times[i], actions[i], xs[i] + origin[0], ys[i] + origin[1], 0)
+            event.offsetLocation(-origin[0].toFloat(), -origin[1].toFloat())
+            event
+        }
+    }
+
+    companion object {
+
+        /**
+         * 匀速拖动，moves 为 0 时是一次点击
+         */
+        fun drag(name: String, x: Float, fromY: Float, toY: Float, moves: Int, frameMillis: Long = 8): TouchStream {
+            val count = moves + 2
+            val actions = IntArray(count)
+            val times = LongArray(count)
+            val xs = FloatArray(count) { x }
+            val ys = FloatArray(count)
+            actions[0] = MotionEvent.ACTION_DOWN
+            ys[0] = fromY
+            for (i in 1..moves) {
+                actions[i] = MotionEvent.ACTION_MOVE
+                times[i] = i * frameMillis
+                ys[i] = fromY + (toY - fromY) * i / moves
+            }
+            actions[count - 1] = MotionEvent.ACTION_UP
+            times[count - 1] = (moves + 1) * frameMillis
+            ys[count - 1] = toY
+            return TouchStream(name, actions, times, xs, ys)
+        }
+
+        fun tap(name: String, x: Float, y: Float) = drag(name, x, y, y, 0)
+    }
+}